@@ -0,0 +1,66 @@
+package org.soloviova.liudmyla.benchmarks;
+
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.soloviova.liudmyla.entities.PlayerItem;
+import org.soloviova.liudmyla.mappers.PlayerMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of reading /get/all response bodies of different sizes: materializing {@code List<PlayerItem>} via
+ * RestAssured jsonPath, as {@code getAllPlayersSuppressRequestException} did before it switched to
+ * the streaming parser, versus visiting all items with the streaming parser of {@link PlayerMapper}
+ * without a match.
+ *
+ * @author Liudmyla Soloviova
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllPlayersDeserializationBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int players;
+
+    private final PlayerMapper mapper = PlayerMapper.getInstance();
+    private byte[] allPlayersJson;
+
+    @Setup(Level.Trial)
+    public void createAllPlayersJson() {
+        final List<PlayerItem> playerItems = IntStream.rangeClosed(1, players)
+                .mapToObj(BenchmarkData::playerItem)
+                .collect(Collectors.toList());
+        allPlayersJson = mapper.mapPlayerObjectToJsonBytesSuppressException(Map.of("players", playerItems));
+    }
+
+    @Benchmark
+    public List<PlayerItem> jsonPathList() {
+        return JsonPath.from(new ByteArrayInputStream(allPlayersJson)).getList("players", PlayerItem.class);
+    }
+
+    @Benchmark
+    public Optional<PlayerItem> streamingScan() throws IOException {
+        return mapper.findFirstPlayerItem(new ByteArrayInputStream(allPlayersJson), playerItem -> false);
+    }
+}
@@ -0,0 +1,41 @@
+package org.soloviova.liudmyla.benchmarks;
+
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.entities.PlayerItem;
+
+/**
+ * Entities used by benchmarks. Their field values have realistic lengths.
+ *
+ * @author Liudmyla Soloviova
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Player player(final int id) {
+        return player(id, "admin");
+    }
+
+    static Player player(final int id, final String role) {
+        return Player.builder()
+                .id(id)
+                .login("benchmark_player_" + id)
+                .password("bEnchmArk" + id)
+                .screenName("Benchmark Player " + id + " [CREATED_BY_TESTS]")
+                .gender(id % 2 == 0 ? "male" : "female")
+                .age(17 + id % 42)
+                .role(role)
+                .build();
+    }
+
+    static PlayerItem playerItem(final int id) {
+        return PlayerItem.builder()
+                .id(id)
+                .screenName("Benchmark Player " + id + " [CREATED_BY_TESTS]")
+                .gender(id % 2 == 0 ? "male" : "female")
+                .age(17 + id % 42)
+                .role(id % 10 == 0 ? "admin" : "user")
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package org.soloviova.liudmyla.benchmarks;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs JMH benchmarks once for every thread count of players.jmh.threads property ('1,max' by default,
+ * where 'max' is the number of available processors), so every benchmark is measured single-threaded
+ * and contended. Allocation per operation is reported by the GC profiler.
+ * <p>
+ * Arguments are regular JMH command line options, e.g. a benchmark name regexp. Results of every thread count
+ * are written as JSON to the directory given by players.jmh.results.dir property.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public final class PlayerBenchmarksRunner {
+    private static final String THREADS = System.getProperty("players.jmh.threads", "1,max");
+    private static final String RESULTS_DIRECTORY = System.getProperty("players.jmh.results.dir", "target/jmh-results");
+
+    private PlayerBenchmarksRunner() {
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        new File(RESULTS_DIRECTORY).mkdirs();
+
+        for (final String threadsValue : THREADS.split(",")) {
+            final int threads = "max".equals(threadsValue.trim())
+                    ? Runtime.getRuntime().availableProcessors()
+                    : Integer.parseInt(threadsValue.trim());
+            log.info("Running benchmarks on {} thread(s)", threads);
+
+            final Options options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(RESULTS_DIRECTORY, "threads-" + threads + ".json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
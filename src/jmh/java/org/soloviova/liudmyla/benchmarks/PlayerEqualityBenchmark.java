@@ -0,0 +1,47 @@
+package org.soloviova.liudmyla.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.soloviova.liudmyla.entities.Player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Lombok generated {@code equals} and {@code hashCode} of {@link Player}, e.g. comparison of the supervisor
+ * with its default condition in {@code restoreSupervisorData}
+ *
+ * @author Liudmyla Soloviova
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerEqualityBenchmark {
+    private final Player player = BenchmarkData.player(1);
+    private final Player equalPlayer = BenchmarkData.player(1);
+    private final Player playerWithOtherRole = BenchmarkData.player(1, "user");
+
+    @Benchmark
+    public boolean equalsOfEqualPlayers() {
+        return player.equals(equalPlayer);
+    }
+
+    @Benchmark
+    public boolean equalsOfPlayersDifferentInLastField() {
+        return player.equals(playerWithOtherRole);
+    }
+
+    @Benchmark
+    public int hashCodeOfPlayer() {
+        return player.hashCode();
+    }
+}
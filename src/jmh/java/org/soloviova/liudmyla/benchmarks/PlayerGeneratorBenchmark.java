@@ -0,0 +1,47 @@
+package org.soloviova.liudmyla.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.testdata.PlayerGenerator;
+import org.soloviova.liudmyla.testdata.PlayerViolation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link PlayerGenerator}. The generator is shared by all benchmark threads,
+ * as it is shared by parallel data providers.
+ *
+ * @author Liudmyla Soloviova
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerGeneratorBenchmark {
+    private final PlayerGenerator generator = new PlayerGenerator(42L, "benchmark");
+
+    @Benchmark
+    public Player validPlayer() {
+        return generator.validPlayer();
+    }
+
+    @Benchmark
+    public Player invalidPlayer() {
+        return generator.invalidPlayer(PlayerViolation.AGE_TOO_HIGH);
+    }
+
+    @Benchmark
+    public String uniqueName() {
+        return generator.uniqueName("john_doe");
+    }
+}
@@ -0,0 +1,49 @@
+package org.soloviova.liudmyla.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.entities.PlayerIdItem;
+import org.soloviova.liudmyla.mappers.PlayerMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link PlayerMapper} serialization of request bodies. The mapper is shared by all benchmark threads,
+ * as it is shared by parallel tests.
+ *
+ * @author Liudmyla Soloviova
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerMapperBenchmark {
+    private final PlayerMapper mapper = PlayerMapper.getInstance();
+    private final Player player = BenchmarkData.player(42);
+    private final PlayerIdItem playerIdItem = new PlayerIdItem(42);
+
+    @Benchmark
+    public byte[] playerToJsonBytes() {
+        return mapper.mapPlayerObjectToJsonBytesSuppressException(player);
+    }
+
+    @Benchmark
+    public String playerToJsonString() {
+        return mapper.mapPlayerObjectToJsonStringSuppressException(player);
+    }
+
+    @Benchmark
+    public byte[] playerIdItemToJsonBytes() {
+        return mapper.mapPlayerObjectToJsonBytesSuppressException(playerIdItem);
+    }
+}
@@ -0,0 +1,67 @@
+package org.soloviova.liudmyla.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error counter of one endpoint. Latencies are recorded in microseconds
+ * from the intended start time of a request.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class EndpointLatency {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final LoadEndpoint endpoint;
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointLatency(final LoadEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @param intendedStartNanos time at which the request had to be sent according to the arrival rate
+     * @param successful         whether the request succeeded
+     */
+    public void record(final long intendedStartNanos, final boolean successful) {
+        final long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        histogram.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+        if (!successful) {
+            errors.increment();
+        }
+    }
+
+    public String getEndpointName() {
+        return endpoint.getMixName();
+    }
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public String summary() {
+        return String.format("%-7s count=%d errors=%d p50=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+                endpoint.getMixName(), getCount(), getErrors(), millisAt(50.0), millisAt(99.0), millisAt(99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Writes the full percentile distribution in HdrHistogram .hgrm format with values in milliseconds
+     */
+    public void writePercentileDistribution(final PrintStream output) {
+        histogram.outputPercentileDistribution(output, 1000.0);
+    }
+
+    private double millisAt(final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,33 @@
+package org.soloviova.liudmyla.load;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuration of a load run. It is read from the following properties:
+ * players.load.rate - requests per second (50 by default);
+ * players.load.duration.seconds - duration of the run (60 by default);
+ * players.load.mix - traffic mix (create=20,get=30,getAll=10,update=20,delete=20 by default);
+ * players.load.editor - login of the player who creates, updates and deletes players (supervisor by default);
+ * players.load.drain.seconds - how long to wait for requests in flight after the run (30 by default);
+ * players.load.report.dir - directory for percentile distributions of every endpoint (target/load-reports by default).
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@ToString
+public class LoadConfiguration {
+    private final int rate = Integer.getInteger("players.load.rate", 50);
+    private final int durationSeconds = Integer.getInteger("players.load.duration.seconds", 60);
+    private final TrafficMix mix = TrafficMix.parse(
+            System.getProperty("players.load.mix", "create=20,get=30,getAll=10,update=20,delete=20"));
+    private final String editor = System.getProperty("players.load.editor", "supervisor");
+    private final int drainSeconds = Integer.getInteger("players.load.drain.seconds", 30);
+    private final String reportDirectory = System.getProperty("players.load.report.dir", "target/load-reports");
+
+    public LoadConfiguration() {
+        if (rate <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Load rate and duration must be positive: " + this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.soloviova.liudmyla.load;
+
+/**
+ * Endpoints of the Player controller which are driven by {@link PlayerLoadGenerator}
+ *
+ * @author Liudmyla Soloviova
+ */
+public enum LoadEndpoint {
+    CREATE("create"),
+    GET("get"),
+    GET_ALL("getAll"),
+    UPDATE("update"),
+    DELETE("delete");
+
+    private final String mixName;
+
+    LoadEndpoint(final String mixName) {
+        this.mixName = mixName;
+    }
+
+    public String getMixName() {
+        return mixName;
+    }
+
+    public static LoadEndpoint byMixName(final String mixName) {
+        for (final LoadEndpoint endpoint : values()) {
+            if (endpoint.mixName.equalsIgnoreCase(mixName.trim())) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in traffic mix: " + mixName);
+    }
+}
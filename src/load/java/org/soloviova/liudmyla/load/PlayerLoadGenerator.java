@@ -0,0 +1,223 @@
+package org.soloviova.liudmyla.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.cleanup.CleanupReport;
+import org.soloviova.liudmyla.cleanup.PlayerCleaner;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.soloviova.liudmyla.httpclients.PlayerHttpResponse;
+import org.soloviova.liudmyla.standin.PlayerControllerStandInServer;
+import org.soloviova.liudmyla.testdata.PlayerGenerator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the Player controller. Requests are started at a fixed arrival rate
+ * regardless of how fast the server responds, and the endpoint of every request is chosen by {@link TrafficMix}.
+ * <p>
+ * Latency is measured from the time at which a request had to be started according to the arrival rate,
+ * not from the time it was actually sent. So if the generator falls behind, e.g. while it waits for
+ * a server permit, the delay is included in the latency and is not hidden by coordinated omission.
+ * Note that the number of requests in flight is still bounded by players.server.permits,
+ * so it should be raised for high arrival rates.
+ * <p>
+ * Get, update and delete requests target players created by this run. When there is no such player,
+ * a player is created instead. All players left after the run are deleted, even if the run fails. Their screen
+ * names end with the same marker as players created by tests.
+ * <p>
+ * Run it with {@code mvn test -Pload}, see {@link LoadConfiguration} for the properties.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerLoadGenerator {
+    private final LoadConfiguration configuration;
+    private final PlayerControllerHttpClient httpClient;
+    private final Map<LoadEndpoint, EndpointLatency> latencies = new EnumMap<>(LoadEndpoint.class);
+    private final Deque<Integer> livePlayerIds = new ConcurrentLinkedDeque<>();
+    private final Set<Integer> createdPlayerIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong playerCounter = new AtomicLong();
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+    private final AtomicLong lastCompletionNanos = new AtomicLong();
+    private final LongAccumulator maxDispatchLagNanos = new LongAccumulator(Long::max, 0L);
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final String createdPlayersMarker = PlayerGenerator.getInstance().getCreatedPlayersMarker();
+
+    public PlayerLoadGenerator(final LoadConfiguration configuration, final PlayerControllerHttpClient httpClient) {
+        this.configuration = configuration;
+        this.httpClient = httpClient;
+        for (final LoadEndpoint endpoint : LoadEndpoint.values()) {
+            latencies.put(endpoint, new EndpointLatency(endpoint));
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (PlayerControllerStandInServer.isEnabled()) {
+            PlayerControllerStandInServer.start();
+        }
+        try {
+            final PlayerLoadGenerator generator =
+                    new PlayerLoadGenerator(new LoadConfiguration(), PlayerControllerHttpClient.getInstance());
+            try {
+                generator.run();
+            } finally {
+                generator.deleteCreatedPlayers();
+            }
+        } finally {
+            PlayerControllerStandInServer.stop();
+        }
+    }
+
+    public void run() throws IOException {
+        log.info("Starting load run {}: {}", runId, configuration);
+        final int rate = configuration.getRate();
+        final long totalRequests = (long) rate * configuration.getDurationSeconds();
+        final long start = System.nanoTime();
+
+        for (long i = 0; i < totalRequests; i++) {
+            final long intendedStartNanos = start + i * TimeUnit.SECONDS.toNanos(1) / rate;
+            waitUntil(intendedStartNanos);
+            maxDispatchLagNanos.accumulate(System.nanoTime() - intendedStartNanos);
+            dispatch(configuration.getMix().next(), intendedStartNanos);
+        }
+
+        final long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(configuration.getDrainSeconds());
+        while (requestsInFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        report(start, totalRequests);
+    }
+
+    private void dispatch(final LoadEndpoint plannedEndpoint, final long intendedStartNanos) {
+        final Integer targetId = plannedEndpoint == LoadEndpoint.DELETE
+                ? livePlayerIds.pollFirst()
+                : livePlayerIds.peekLast();
+        final LoadEndpoint endpoint = targetId == null && plannedEndpoint != LoadEndpoint.GET_ALL
+                ? LoadEndpoint.CREATE
+                : plannedEndpoint;
+
+        requestsInFlight.incrementAndGet();
+        final CompletableFuture<PlayerHttpResponse> response;
+        try {
+            response = send(endpoint, targetId);
+        } catch (RuntimeException e) {
+            complete(endpoint, intendedStartNanos, false);
+            return;
+        }
+        response.whenComplete((completedResponse, error) -> {
+            final boolean successful = error == null && completedResponse.isSuccessful();
+            if (successful) {
+                onSuccess(endpoint, targetId, completedResponse);
+            } else if (endpoint == LoadEndpoint.DELETE) {
+                livePlayerIds.addLast(targetId);
+            }
+            complete(endpoint, intendedStartNanos, successful);
+        });
+    }
+
+    private CompletableFuture<PlayerHttpResponse> send(final LoadEndpoint endpoint, final Integer targetId) {
+        switch (endpoint) {
+            case GET:
+                return httpClient.getPlayerByIdAsync(targetId);
+            case GET_ALL:
+                return httpClient.getAllPlayersAsync();
+            case UPDATE:
+                return httpClient.updatePlayerAsync(targetId, configuration.getEditor(),
+                        Player.builder().age(randomAge()).build());
+            case DELETE:
+                return httpClient.deletePlayerAsync(targetId, configuration.getEditor());
+            default:
+                return httpClient.createPlayerAsync(newPlayer(), configuration.getEditor());
+        }
+    }
+
+    private void onSuccess(final LoadEndpoint endpoint, final Integer targetId, final PlayerHttpResponse response) {
+        if (endpoint == LoadEndpoint.CREATE) {
+            final Integer createdId = response.as(Player.class).getId();
+            if (createdId != null) {
+                createdPlayerIds.add(createdId);
+                livePlayerIds.addLast(createdId);
+            }
+        } else if (endpoint == LoadEndpoint.DELETE) {
+            createdPlayerIds.remove(targetId);
+        }
+    }
+
+    private void complete(final LoadEndpoint endpoint, final long intendedStartNanos, final boolean successful) {
+        latencies.get(endpoint).record(intendedStartNanos, successful);
+        lastCompletionNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        requestsInFlight.decrementAndGet();
+    }
+
+    private Player newPlayer() {
+        final long number = playerCounter.incrementAndGet();
+        return Player.builder()
+                .login("load_" + runId + "_" + number)
+                .password("loadPass" + number)
+                .screenName("Load_" + runId + "_" + number + createdPlayersMarker)
+                .gender(ThreadLocalRandom.current().nextBoolean() ? "male" : "female")
+                .age(randomAge())
+                .role("user")
+                .build();
+    }
+
+    private static int randomAge() {
+        return ThreadLocalRandom.current().nextInt(17, 60);
+    }
+
+    private static void waitUntil(final long nanoTime) {
+        long remainingNanos;
+        while ((remainingNanos = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+
+    private void report(final long start, final long totalRequests) throws IOException {
+        final long completed = latencies.values().stream().mapToLong(EndpointLatency::getCount).sum();
+        final long errors = latencies.values().stream().mapToLong(EndpointLatency::getErrors).sum();
+        final double elapsedSeconds = Math.max(1L, lastCompletionNanos.get() - start) / 1e9;
+
+        log.info("Load run {} finished: {} of {} requests completed, {} errors, {} still in flight",
+                runId, completed, totalRequests, errors, requestsInFlight.get());
+        log.info("Requested rate: {} req/s, achieved throughput: {} req/s, max dispatch lag: {} ms",
+                configuration.getRate(), String.format("%.1f", completed / elapsedSeconds),
+                TimeUnit.NANOSECONDS.toMillis(maxDispatchLagNanos.get()));
+
+        final Path reportDirectory = Paths.get(configuration.getReportDirectory());
+        Files.createDirectories(reportDirectory);
+        for (final EndpointLatency latency : latencies.values()) {
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            log.info(latency.summary());
+            final Path distributionFile = reportDirectory.resolve(runId + "-" + latency.getEndpointName() + ".hgrm");
+            try (PrintStream output = new PrintStream(Files.newOutputStream(distributionFile))) {
+                latency.writePercentileDistribution(output);
+            }
+        }
+        log.info("Percentile distributions are written to {}", reportDirectory.toAbsolutePath());
+    }
+
+    private void deleteCreatedPlayers() {
+        final CleanupReport report = new PlayerCleaner(httpClient).deletePlayers(createdPlayerIds,
+                configuration.getEditor());
+        log.info("Deleted {} of {} players created by load run {}", report.getDeleted(), report.getRequested(), runId);
+    }
+}
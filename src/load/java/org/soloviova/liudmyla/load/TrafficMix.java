@@ -0,0 +1,66 @@
+package org.soloviova.liudmyla.load;
+
+import lombok.ToString;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted mix of endpoints, e.g. 'create=20,get=30,getAll=10,update=20,delete=20'.
+ * Weights are relative and don't have to sum up to 100.
+ *
+ * @author Liudmyla Soloviova
+ */
+@ToString
+public class TrafficMix {
+    private final Map<LoadEndpoint, Integer> weights;
+    @ToString.Exclude
+    private final LoadEndpoint[] endpoints;
+    @ToString.Exclude
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(final Map<LoadEndpoint, Integer> weights) {
+        this.weights = weights;
+        endpoints = weights.keySet().toArray(new LoadEndpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int totalWeight = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            totalWeight += weights.get(endpoints[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Traffic mix has no endpoints with positive weight: " + weights);
+        }
+    }
+
+    public static TrafficMix parse(final String mix) {
+        final Map<LoadEndpoint, Integer> weights = new EnumMap<>(LoadEndpoint.class);
+        for (final String endpointWeight : mix.split(",")) {
+            final String[] nameAndWeight = endpointWeight.split("=", 2);
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Traffic mix entry must look like 'endpoint=weight': "
+                        + endpointWeight);
+            }
+            final int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Traffic mix weight cannot be negative: " + endpointWeight);
+            }
+            weights.merge(LoadEndpoint.byMixName(nameAndWeight[0]), weight, Integer::sum);
+        }
+        return new TrafficMix(weights);
+    }
+
+    /**
+     * @return randomly chosen endpoint with probability proportional to its weight
+     */
+    public LoadEndpoint next() {
+        final int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+}
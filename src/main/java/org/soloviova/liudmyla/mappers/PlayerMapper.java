@@ -1,32 +1,185 @@
 package org.soloviova.liudmyla.mappers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.entities.PlayerIdItem;
+import org.soloviova.liudmyla.entities.PlayerItem;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe mapper of player entities to and from JSON. It has no locks: {@link ObjectWriter} and
+ * {@link ObjectReader} instances are immutable and are built once for each entity type, so any number of threads
+ * can use them concurrently.
+ */
 @Slf4j
 public class PlayerMapper {
 
-    private static PlayerMapper playerMapper;
+    private static final PlayerMapper PLAYER_MAPPER = new PlayerMapper();
+    private static final byte[] EMPTY_JSON_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final String PLAYERS_FIELD = "players";
+
     private final ObjectMapper objectMapper;
+    private final ObjectWriter defaultWriter;
+    private final Map<Class<?>, ObjectWriter> entityWriters;
+    private final Map<Class<?>, ObjectReader> entityReaders;
 
     private PlayerMapper() {
-        objectMapper = new ObjectMapper();
+        objectMapper = new ObjectMapper()
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        defaultWriter = objectMapper.writer();
+        entityWriters = Map.of(
+                Player.class, objectMapper.writerFor(Player.class),
+                PlayerItem.class, objectMapper.writerFor(PlayerItem.class),
+                PlayerIdItem.class, objectMapper.writerFor(PlayerIdItem.class));
+        entityReaders = Map.of(
+                Player.class, objectMapper.readerFor(Player.class),
+                PlayerItem.class, objectMapper.readerFor(PlayerItem.class));
     }
 
-    public static synchronized PlayerMapper getInstance() {
-        if (playerMapper == null) {
-            playerMapper = new PlayerMapper();
-        }
-        return playerMapper;
+    public static PlayerMapper getInstance() {
+        return PLAYER_MAPPER;
     }
 
-    public synchronized String mapPlayerObjectToJsonStringSuppressException(final Object playerObject) {
+    public String mapPlayerObjectToJsonStringSuppressException(final Object playerObject) {
         try {
-            return objectMapper.writeValueAsString(playerObject);
+            return writerFor(playerObject).writeValueAsString(playerObject);
         } catch (JsonProcessingException e) {
-            log.error("An exception occurred while mapping object {}:\n{}", playerObject.toString(), e.getMessage());
+            log.error("An exception occurred while mapping object {}:\n{}", playerObject, e.getMessage());
             return "{}";
         }
     }
+
+    /**
+     * Maps the given entity to UTF-8 encoded JSON. The same bytes can be sent as a request body and logged.
+     *
+     * @param playerObject entity to map
+     * @return JSON bytes or bytes of an empty JSON object if the mapping failed
+     */
+    public byte[] mapPlayerObjectToJsonBytesSuppressException(final Object playerObject) {
+        try {
+            return writerFor(playerObject).writeValueAsBytes(playerObject);
+        } catch (JsonProcessingException e) {
+            log.error("An exception occurred while mapping object {}:\n{}", playerObject, e.getMessage());
+            return EMPTY_JSON_OBJECT.clone();
+        }
+    }
+
+    /**
+     * Writes the given entity as UTF-8 encoded JSON to the stream. The stream is not closed.
+     *
+     * @param playerObject entity to map
+     * @param outputStream stream to write JSON to
+     * @return {@code true} if the entity was written successfully
+     */
+    public boolean writePlayerObjectToStreamSuppressException(final Object playerObject,
+                                                              final OutputStream outputStream) {
+        try {
+            writerFor(playerObject).writeValue(outputStream, playerObject);
+            return true;
+        } catch (IOException e) {
+            log.error("An exception occurred while writing object {}:\n{}", playerObject, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Maps UTF-8 encoded JSON to an entity of the given type
+     *
+     * @param json              JSON bytes
+     * @param playerObjectClass type of the entity
+     * @return mapped entity
+     * @throws IOException if the JSON cannot be parsed or mapped
+     */
+    public <T> T mapJsonBytesToPlayerObject(final byte[] json, final Class<T> playerObjectClass) throws IOException {
+        final ObjectReader reader = entityReaders.get(playerObjectClass);
+        return reader != null ? reader.readValue(json) : objectMapper.readValue(json, playerObjectClass);
+    }
+
+    /**
+     * Reads the 'players' array of all players list JSON one {@link PlayerItem} at a time and stops at the first item
+     * which matches the predicate. Only one item is kept in memory, and the rest of the stream is not read
+     * after the match. The stream is closed when this method returns.
+     *
+     * @param json      stream of UTF-8 encoded JSON object with 'players' array
+     * @param predicate condition of the item to find
+     * @return the first matching item or empty {@link Optional} if there is no such item
+     * @throws IOException if the JSON cannot be parsed or an item cannot be mapped
+     */
+    public Optional<PlayerItem> findFirstPlayerItem(final InputStream json,
+                                                    final Predicate<? super PlayerItem> predicate) throws IOException {
+        final ObjectReader playerItemReader = entityReaders.get(PlayerItem.class);
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (!moveToPlayersArray(parser)) {
+                return Optional.empty();
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                final PlayerItem playerItem = playerItemReader.readValue(parser);
+                if (predicate.test(playerItem)) {
+                    return Optional.of(playerItem);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads all items of the 'players' array of all players list JSON with the streaming parser, without building
+     * a tree of the whole document. The stream is closed when this method returns.
+     *
+     * @param json stream of UTF-8 encoded JSON object with 'players' array
+     * @return all items or empty list if there is no such array
+     * @throws IOException if the JSON cannot be parsed or an item cannot be mapped
+     */
+    public List<PlayerItem> readPlayerItems(final InputStream json) throws IOException {
+        final ObjectReader playerItemReader = entityReaders.get(PlayerItem.class);
+        final List<PlayerItem> playerItems = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (moveToPlayersArray(parser)) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    playerItems.add(playerItemReader.readValue(parser));
+                }
+            }
+        }
+        return playerItems;
+    }
+
+    /**
+     * Moves the parser to the start of top-level 'players' array skipping all other fields
+     *
+     * @return {@code false} if there is no such array
+     */
+    private boolean moveToPlayersArray(final JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken valueToken = parser.nextToken();
+            if (PLAYERS_FIELD.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private ObjectWriter writerFor(final Object playerObject) {
+        return playerObject == null ? defaultWriter : entityWriters.getOrDefault(playerObject.getClass(), defaultWriter);
+    }
 }
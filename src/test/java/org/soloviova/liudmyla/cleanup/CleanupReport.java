@@ -0,0 +1,31 @@
+package org.soloviova.liudmyla.cleanup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Result of deleting players by {@link PlayerCleaner}
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CleanupReport {
+    private final int requested;
+    private final int deleted;
+    private final Set<Integer> failedIds;
+    private final long elapsedMillis;
+    private final boolean confirmedByPlayersList;
+
+    public double getDeletionsPerSecond() {
+        return elapsedMillis == 0 ? deleted : deleted * 1000.0 / elapsedMillis;
+    }
+
+    public boolean isSuccessful() {
+        return failedIds.isEmpty();
+    }
+}
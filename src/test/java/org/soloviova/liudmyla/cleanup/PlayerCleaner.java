@@ -0,0 +1,127 @@
+package org.soloviova.liudmyla.cleanup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.PlayerItem;
+import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.soloviova.liudmyla.httpclients.PlayerHttpResponse;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This class deletes players in parallel. At most players.cleanup.concurrency deletions (16 by default) are in flight
+ * at the same time. Deletions failed with a transient error (I/O error, 429 or 5xx status code) are retried up to
+ * players.cleanup.attempts times (3 by default) with a linear backoff.
+ * <p>
+ * Instead of checking every deletion separately, the result is confirmed by one request of all players list
+ * after all deletions complete.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerCleaner {
+    private static final int CONCURRENCY = Integer.getInteger("players.cleanup.concurrency", 16);
+    private static final int MAX_ATTEMPTS = Integer.getInteger("players.cleanup.attempts", 3);
+    private static final long RETRY_BACKOFF_MILLIS = Long.getLong("players.cleanup.retry.backoff.millis", 200L);
+
+    private final PlayerControllerHttpClient httpClient;
+
+    public PlayerCleaner(final PlayerControllerHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Deletes players with the given ids
+     *
+     * @param playerIds ids of players to delete
+     * @param editor    login of a user who is going to delete the players
+     * @return {@link CleanupReport} with the ids which were not deleted
+     */
+    public CleanupReport deletePlayers(final Collection<Integer> playerIds, final String editor) {
+        final long start = System.nanoTime();
+        final Set<Integer> notDeletedIds = ConcurrentHashMap.newKeySet();
+        final Semaphore inFlightDeletions = new Semaphore(CONCURRENCY);
+
+        final CompletableFuture<?>[] deletions = playerIds.stream()
+                .map(playerId -> {
+                    inFlightDeletions.acquireUninterruptibly();
+                    return deleteWithRetries(playerId, editor, 1)
+                            .whenComplete((deleted, error) -> {
+                                inFlightDeletions.release();
+                                if (!Boolean.TRUE.equals(deleted)) {
+                                    notDeletedIds.add(playerId);
+                                }
+                            });
+                })
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(deletions).exceptionally(error -> null).join();
+
+        final Optional<Set<Integer>> listedIds = getListedPlayerIds();
+        final Set<Integer> failedIds = listedIds
+                .map(ids -> playerIds.stream().filter(ids::contains).collect(Collectors.toSet()))
+                .orElse(new HashSet<>(notDeletedIds));
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        return new CleanupReport(playerIds.size(), playerIds.size() - failedIds.size(), failedIds, elapsedMillis,
+                listedIds.isPresent());
+    }
+
+    /**
+     * Never throws: a deletion which cannot be started fails the returned future like a failed request,
+     * so the permit of the deletion is always released and the player is reported as not deleted
+     */
+    private CompletableFuture<Boolean> deleteWithRetries(final Integer playerId,
+                                                         final String editor,
+                                                         final int attempt) {
+        CompletableFuture<PlayerHttpResponse> deletion;
+        try {
+            deletion = httpClient.deletePlayerAsync(playerId, editor);
+        } catch (RuntimeException e) {
+            deletion = CompletableFuture.failedFuture(e);
+        }
+        return deletion
+                .handle((response, error) -> {
+                    if (error == null && response.isSuccessful()) {
+                        return CompletableFuture.completedFuture(true);
+                    }
+                    if (isTransientFailure(response, error) && attempt < MAX_ATTEMPTS) {
+                        log.warn("Deletion of Player {} failed on attempt {}, retrying", playerId, attempt);
+                        return CompletableFuture.runAsync(() -> { },
+                                        CompletableFuture.delayedExecutor(RETRY_BACKOFF_MILLIS * attempt,
+                                                TimeUnit.MILLISECONDS))
+                                .thenCompose(ignored -> deleteWithRetries(playerId, editor, attempt + 1));
+                    }
+                    log.error("Player {} was not deleted: {}", playerId, error != null ? error.getMessage() : response);
+                    return CompletableFuture.completedFuture(false);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private boolean isTransientFailure(final PlayerHttpResponse response, final Throwable error) {
+        if (error != null) {
+            return true;
+        }
+        final int statusCode = response.getStatusCode();
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * @return ids of all players or empty {@link Optional} if the list could not be obtained
+     */
+    private Optional<Set<Integer>> getListedPlayerIds() {
+        final Optional<Set<Integer>> listedIds = httpClient.getAllPlayersIfObtained()
+                .map(players -> players.stream().map(PlayerItem::getId).collect(Collectors.toSet()));
+        if (listedIds.isEmpty()) {
+            log.error("Deletion of players cannot be confirmed by the list of all players");
+        }
+        return listedIds;
+    }
+}
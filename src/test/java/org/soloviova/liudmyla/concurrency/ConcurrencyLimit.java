@@ -0,0 +1,199 @@
+package org.soloviova.liudmyla.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit of requests sent to the server at the same time.
+ * <p>
+ * A fixed limit never changes. An adaptive limit follows AIMD (additive increase, multiplicative decrease):
+ * every request which completes in time while at least half of the limit is in use raises the limit by one,
+ * and a request which takes longer than the latency threshold or fails with an I/O error, 429 or 5xx status code
+ * multiplies it by the backoff ratio. Only requests started after the last decrease can decrease the limit again,
+ * so one burst of slow responses backs it off once instead of dropping it to the minimum.
+ * <p>
+ * Every change of the limit is kept in the history, at most {@value #MAX_HISTORY_SIZE} changes.
+ * Listeners of the changes are called without holding the lock of the limit, and there is no {@code synchronized},
+ * so virtual threads updating the limit don't pin their carrier threads.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class ConcurrencyLimit {
+    private static final int MAX_HISTORY_SIZE = 10_000;
+
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final long createdNanos = System.nanoTime();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<LimitChange> history = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+    private long lastDecreaseNanos;
+
+    private ConcurrencyLimit(final boolean adaptive, final int initialLimit, final int minLimit, final int maxLimit,
+                             final double backoffRatio, final long latencyThresholdMillis) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Concurrency limit %d must be from %d to %d and "
+                    + "the minimum must be positive", initialLimit, minLimit, maxLimit));
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, but was " + backoffRatio);
+        }
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = createdNanos;
+        history.add(new LimitChange(0, initialLimit, 0, "initial"));
+    }
+
+    public static ConcurrencyLimit fixed(final int limit) {
+        return new ConcurrencyLimit(false, limit, limit, limit, 0.5, Long.MAX_VALUE / 1_000_000);
+    }
+
+    /**
+     * @param initialLimit           limit before the first request
+     * @param minLimit               the limit never goes below
+     * @param maxLimit               the limit never goes above
+     * @param backoffRatio           multiplier of the limit when a request is slow or failed
+     * @param latencyThresholdMillis requests taking longer are considered as a sign of overload
+     * @return limit adapted to latency and failures of requests
+     */
+    public static ConcurrencyLimit adaptive(final int initialLimit, final int minLimit, final int maxLimit,
+                                            final double backoffRatio, final long latencyThresholdMillis) {
+        return new ConcurrencyLimit(true, initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMillis);
+    }
+
+    /**
+     * Limit configured by players.server.permits.mode property: 'fixed' (default) or 'adaptive'.
+     * The adaptive limit starts from players.server.permits.initial (16 by default) and changes from
+     * players.server.permits.min (1 by default) to the given maximum; it is backed off by
+     * players.server.permits.backoff.ratio (0.9 by default) when a request takes longer than
+     * players.server.permits.latency.threshold.millis (2000 by default) or fails.
+     *
+     * @param maxLimit the fixed limit or the maximum of the adaptive one
+     */
+    public static ConcurrencyLimit fromConfiguration(final int maxLimit) {
+        if (!"adaptive".equals(System.getProperty("players.server.permits.mode", "fixed"))) {
+            return fixed(maxLimit);
+        }
+        final int minLimit = Math.min(Integer.getInteger("players.server.permits.min", 1), maxLimit);
+        final int initialLimit = Math.max(minLimit,
+                Math.min(Integer.getInteger("players.server.permits.initial", 16), maxLimit));
+        return adaptive(initialLimit, minLimit, maxLimit,
+                Double.parseDouble(System.getProperty("players.server.permits.backoff.ratio", "0.9")),
+                Long.getLong("players.server.permits.latency.threshold.millis", 2_000L));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @param listener action called after every change of the limit
+     */
+    public void addChangeListener(final Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Adapts the limit to a completed request
+     *
+     * @param startNanos {@link System#nanoTime()} when the request was sent
+     * @param failed     {@code true} if the request failed with an I/O error, 429 or 5xx status code
+     * @param inFlight   number of requests in flight when the request completed, including this one
+     */
+    public void onRequestCompleted(final long startNanos, final boolean failed, final int inFlight) {
+        if (!adaptive) {
+            return;
+        }
+        final long endNanos = System.nanoTime();
+        final boolean tooSlow = endNanos - startNanos > latencyThresholdNanos;
+        final boolean changed;
+        lock.lock();
+        try {
+            if (failed || tooSlow) {
+                if (startNanos - lastDecreaseNanos < 0) {
+                    return;
+                }
+                lastDecreaseNanos = endNanos;
+                changed = change(Math.max(minLimit, (int) (limit * backoffRatio)), inFlight,
+                        failed ? "failure" : "latency");
+            } else {
+                changed = inFlight * 2 >= limit && limit < maxLimit && change(limit + 1, inFlight, "increase");
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (changed) {
+            changeListeners.forEach(Runnable::run);
+        }
+    }
+
+    public List<LimitChange> getHistory() {
+        lock.lock();
+        try {
+            return List.copyOf(history);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return history of the limit in CSV format: elapsed milliseconds, limit, requests in flight, reason
+     */
+    public String historyCsv() {
+        final StringBuilder csv = new StringBuilder("elapsed_millis,limit,in_flight,reason\n");
+        getHistory().forEach(change -> csv.append(change.getElapsedMillis()).append(',')
+                .append(change.getLimit()).append(',')
+                .append(change.getInFlight()).append(',')
+                .append(change.getReason()).append('\n'));
+        return csv.toString();
+    }
+
+    private boolean change(final int newLimit, final int inFlight, final String reason) {
+        if (newLimit == limit) {
+            return false;
+        }
+        log.debug("Concurrency limit is changed from {} to {} on {}", limit, newLimit, reason);
+        limit = newLimit;
+        if (history.size() < MAX_HISTORY_SIZE) {
+            history.add(new LimitChange(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos),
+                    newLimit, inFlight, reason));
+        }
+        return true;
+    }
+
+    /**
+     * One change of the limit
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class LimitChange {
+        private final long elapsedMillis;
+        private final int limit;
+        private final int inFlight;
+        private final String reason;
+    }
+}
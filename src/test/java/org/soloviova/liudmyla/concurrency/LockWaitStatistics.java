@@ -0,0 +1,20 @@
+package org.soloviova.liudmyla.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of waiting time accumulated by {@link StripedLock}
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class LockWaitStatistics {
+    private final long acquisitions;
+    private final long contendedAcquisitions;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+}
@@ -0,0 +1,186 @@
+package org.soloviova.liudmyla.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class limits the number of requests which are sent to the server at the same time.
+ * When tests run on virtual threads, this limit is the only bound of the suite concurrency.
+ * <p>
+ * The number of permits is taken from {@link ConcurrencyLimit}, so it follows the limit if the limit is adaptive.
+ * When the limit goes down, permits which are already taken are not revoked, but new ones are not given
+ * until the number of requests in flight is below the new limit.
+ * <p>
+ * Asynchronous callers get a permit with {@link #acquireAsync()}, which never blocks. A released permit goes to
+ * the oldest asynchronous waiter first, so a free permit is never left while asynchronous callers wait.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class ServerPermits {
+    private final ConcurrencyLimit limit;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitAvailable = lock.newCondition();
+    private final Deque<CompletableFuture<Void>> asyncWaiters = new ArrayDeque<>();
+    private int inFlight;
+
+    public ServerPermits(final int permits) {
+        this(ConcurrencyLimit.fixed(permits));
+    }
+
+    public ServerPermits(final ConcurrencyLimit limit) {
+        this.limit = limit;
+        limit.addChangeListener(this::signalPermitsChanged);
+    }
+
+    public void acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= limit.getLimit()) {
+                permitAvailable.awaitUninterruptibly();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a permit without blocking the calling thread
+     *
+     * @return future completed when the permit is taken, the permit must be released by the caller
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        lock.lock();
+        try {
+            if (inFlight < limit.getLimit()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            final CompletableFuture<Void> permit = new CompletableFuture<>();
+            asyncWaiters.add(permit);
+            return permit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        final List<CompletableFuture<Void>> grantedPermits;
+        lock.lock();
+        try {
+            inFlight--;
+            grantedPermits = grantPermitsToAsyncWaiters();
+            if (grantedPermits.isEmpty()) {
+                permitAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        grantedPermits.forEach(permit -> permit.complete(null));
+    }
+
+    /**
+     * Releases the permit of a completed request and adapts the limit to its latency and result
+     *
+     * @param startNanos {@link System#nanoTime()} when the request was sent
+     * @param failed     {@code true} if the request failed with an I/O error, 429 or 5xx status code
+     */
+    public void release(final long startNanos, final boolean failed) {
+        final int completedInFlight;
+        lock.lock();
+        try {
+            completedInFlight = inFlight;
+        } finally {
+            lock.unlock();
+        }
+        limit.onRequestCompleted(startNanos, failed, completedInFlight);
+        release();
+    }
+
+    /**
+     * Executes the given request while holding a permit. The request is considered failed if it throws an exception.
+     *
+     * @param request action which sends a request to the server
+     * @return result of the action
+     */
+    public <T> T withPermit(final Supplier<T> request) {
+        return withPermit(request, result -> false);
+    }
+
+    /**
+     * Executes the given request while holding a permit
+     *
+     * @param request  action which sends a request to the server
+     * @param isFailed condition of the result which means that the request failed, e.g. 5xx status code
+     * @return result of the action
+     */
+    public <T> T withPermit(final Supplier<T> request, final Predicate<? super T> isFailed) {
+        acquire();
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final T result = request.get();
+            failed = isFailed.test(result);
+            return result;
+        } finally {
+            release(start, failed);
+        }
+    }
+
+    public ConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    public int getPermits() {
+        return limit.getLimit();
+    }
+
+    public int getAvailablePermits() {
+        lock.lock();
+        try {
+            return Math.max(0, limit.getLimit() - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param statusCode HTTP status code of a response
+     * @return {@code true} if the status code means that the server is overloaded or failed
+     */
+    public static boolean isOverloadStatus(final int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    private void signalPermitsChanged() {
+        final List<CompletableFuture<Void>> grantedPermits;
+        lock.lock();
+        try {
+            grantedPermits = grantPermitsToAsyncWaiters();
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        grantedPermits.forEach(permit -> permit.complete(null));
+    }
+
+    /**
+     * Takes free permits for the oldest asynchronous waiters. Must be called while holding the lock,
+     * the returned futures are completed after the lock is released, so their continuations don't run under it.
+     */
+    private List<CompletableFuture<Void>> grantPermitsToAsyncWaiters() {
+        final List<CompletableFuture<Void>> grantedPermits = new ArrayList<>();
+        while (!asyncWaiters.isEmpty() && inFlight < limit.getLimit()) {
+            inFlight++;
+            grantedPermits.add(asyncWaiters.poll());
+        }
+        return grantedPermits;
+    }
+}
@@ -0,0 +1,21 @@
+package org.soloviova.liudmyla.concurrency;
+
+/**
+ * State of the app shared by tests. Locks of the resources are always taken in the order of declaration.
+ *
+ * @author Liudmyla Soloviova
+ */
+public enum SharedResource {
+    /**
+     * Record of the supervisor
+     */
+    SUPERVISOR,
+    /**
+     * Test admin created before the suite
+     */
+    TEST_ADMIN,
+    /**
+     * List of all players as a whole, e.g. its first item or the set of players created by tests
+     */
+    PLAYER_LIST
+}
@@ -0,0 +1,110 @@
+package org.soloviova.liudmyla.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write locks of {@link SharedResource}s. Locks of several resources are taken in the order of
+ * the resources declaration, so methods which use overlapping sets of resources can't deadlock.
+ * <p>
+ * Time spent waiting for the locks is accumulated and can be obtained via {@link #getWaitStatistics()}.
+ *
+ * @author Liudmyla Soloviova
+ */
+public final class SharedResourceLocks {
+    private static final SharedResourceLocks INSTANCE = new SharedResourceLocks();
+
+    private final Map<SharedResource, ReentrantReadWriteLock> locks = new EnumMap<>(SharedResource.class);
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+
+    private SharedResourceLocks() {
+        for (final SharedResource resource : SharedResource.values()) {
+            locks.put(resource, new ReentrantReadWriteLock(true));
+        }
+    }
+
+    public static SharedResourceLocks getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Takes read locks of the read resources and write locks of the written ones. The locks must be released
+     * by the same thread.
+     *
+     * @param reads  resources to read
+     * @param writes resources to write, they are not locked for reading even if they are among the read ones
+     * @return taken locks
+     */
+    public HeldLocks lock(final Set<SharedResource> reads, final Set<SharedResource> writes) {
+        final Deque<Lock> heldLocks = new ArrayDeque<>();
+        for (final SharedResource resource : SharedResource.values()) {
+            if (writes.contains(resource)) {
+                heldLocks.push(acquire(locks.get(resource).writeLock()));
+            } else if (reads.contains(resource)) {
+                heldLocks.push(acquire(locks.get(resource).readLock()));
+            }
+        }
+        return new HeldLocks(heldLocks);
+    }
+
+    public LockWaitStatistics getWaitStatistics() {
+        return new LockWaitStatistics(acquisitions.sum(), contendedAcquisitions.sum(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    private Lock acquire(final Lock lock) {
+        acquisitions.increment();
+        if (tryLockFairly(lock)) {
+            return lock;
+        }
+        contendedAcquisitions.increment();
+        final long start = System.nanoTime();
+        lock.lock();
+        final long waitNanos = System.nanoTime() - start;
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+        return lock;
+    }
+
+    /**
+     * Unlike {@link Lock#tryLock()}, doesn't take the lock ahead of threads waiting for it
+     */
+    private boolean tryLockFairly(final Lock lock) {
+        try {
+            return lock.tryLock(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Locks taken by {@link #lock(Set, Set)}, they are released in the reverse order
+     */
+    public static class HeldLocks implements AutoCloseable {
+        private final Deque<Lock> locks;
+
+        private HeldLocks(final Deque<Lock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            while (!locks.isEmpty()) {
+                locks.pop().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.soloviova.liudmyla.concurrency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * This class serializes operations on the same key (a player id or login) while operations on different keys
+ * run concurrently. Keys are spread over a fixed number of {@link ReentrantLock} stripes, so two different keys
+ * may share a stripe, but the same key always maps to the same one.
+ * <p>
+ * Time spent waiting for a busy stripe is accumulated and can be obtained via {@link #getWaitStatistics()}.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+
+    /**
+     * @param stripesCount minimal number of stripes, it is rounded up to the nearest power of two
+     */
+    public StripedLock(final int stripesCount) {
+        final int size = Integer.highestOneBit(Math.max(1, stripesCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Executes the given action while holding the stripe of the given key
+     *
+     * @param key    player id or login
+     * @param action action to execute
+     * @return result of the action
+     */
+    public <T> T withLock(final Object key, final Supplier<T> action) {
+        final ReentrantLock lock = stripeFor(key);
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executes the given action while holding the stripe of the given key
+     *
+     * @param key    player id or login
+     * @param action action to execute
+     */
+    public void withLock(final Object key, final Runnable action) {
+        withLock(key, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public LockWaitStatistics getWaitStatistics() {
+        return new LockWaitStatistics(acquisitions.sum(),
+                contendedAcquisitions.sum(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    private void acquire(final ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+
+        final long waitStart = System.nanoTime();
+        lock.lock();
+        final long waitNanos = System.nanoTime() - waitStart;
+        contendedAcquisitions.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulate(waitNanos);
+    }
+
+    private ReentrantLock stripeFor(final Object key) {
+        final int hash = key == null ? 0 : key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,26 @@
+package org.soloviova.liudmyla.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Shared resources read or written by every test of the annotated class or by the annotated test or configuration
+ * method. Resources of a method are added to resources of its class, and a resource both read and written is
+ * considered written.
+ * <p>
+ * {@link org.soloviova.liudmyla.listeners.SharedResourceListener} runs methods which read the same resource
+ * in parallel, but a method which writes a resource runs alone with respect to all other users of the resource.
+ * Methods without declared resources are not restricted.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface UsesResources {
+
+    SharedResource[] reads() default {};
+
+    SharedResource[] writes() default {};
+}
@@ -0,0 +1,211 @@
+package org.soloviova.liudmyla.fixtures;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.soloviova.liudmyla.httpclients.PlayerHttpResponse;
+import org.soloviova.liudmyla.testdata.PlayerGenerator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool of users and admins created before the tests, so tests which only need an existing Player of some role
+ * don't create it on their critical path.
+ * <p>
+ * {@link #provision()} creates players.fixtures.users users (8 by default) and players.fixtures.admins admins
+ * (4 by default) in parallel. A test takes a Player by {@link #lease(String)}; every lease starts creation of
+ * a replacement in background, so the pool tops itself up while tests run. Players are leased in the order their
+ * creations were started, whatever order the app responds in, so the same tests get the same players
+ * in every sequential run. If the oldest creation is not completed in players.fixtures.lease.timeout.millis
+ * (5000 by default), it is left at the head of the pool for later leases, and the Player is created
+ * by the leasing thread.
+ * <p>
+ * Players are created by the given editor with the given screen name suffix, so they are deleted with other
+ * test data after the suite.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerFixturePool {
+    private static final Map<String, Integer> POOL_SIZES = Map.of(
+            "user", Integer.getInteger("players.fixtures.users", 8),
+            "admin", Integer.getInteger("players.fixtures.admins", 4));
+    private static final long LEASE_TIMEOUT_MILLIS = Long.getLong("players.fixtures.lease.timeout.millis", 5_000L);
+
+    private final PlayerControllerHttpClient httpClient;
+    private final PlayerGenerator generator;
+    private final String screenNameSuffix;
+    private final String editor;
+    private final Map<String, BlockingDeque<CompletableFuture<Optional<Player>>>> players = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<?>> creationsInFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public PlayerFixturePool(final PlayerControllerHttpClient httpClient,
+                             final PlayerGenerator generator,
+                             final String screenNameSuffix,
+                             final String editor) {
+        this.httpClient = httpClient;
+        this.generator = generator;
+        this.screenNameSuffix = screenNameSuffix;
+        this.editor = editor;
+        POOL_SIZES.keySet().forEach(role -> players.put(role, new LinkedBlockingDeque<>()));
+    }
+
+    /**
+     * Creates players of all roles in parallel and waits until they are created
+     */
+    public void provision() {
+        final long start = System.nanoTime();
+        POOL_SIZES.keySet().stream().sorted().forEach(this::topUp);
+        awaitCreationsInFlight();
+        log.info("Fixture pool is provisioned in {} ms: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), getAvailableCounts());
+    }
+
+    /**
+     * Leases a Player of the given role. The lease should be used in try-with-resources.
+     *
+     * @param role 'user' or 'admin'
+     * @return lease of a Player which exists in the app
+     * @throws AssertionError if the Player cannot be created
+     */
+    public PlayerLease lease(final String role) {
+        final BlockingDeque<CompletableFuture<Optional<Player>>> rolePlayers = queueOf(role);
+        Optional<Player> player = Optional.empty();
+        CompletableFuture<Optional<Player>> creation;
+        while (player.isEmpty() && (creation = rolePlayers.pollFirst()) != null) {
+            if (!await(creation)) {
+                rolePlayers.offerFirst(creation);
+                break;
+            }
+            player = creation.isCompletedExceptionally() ? Optional.empty() : creation.join();
+        }
+        topUp(role);
+        if (player.isEmpty()) {
+            log.warn("Fixture pool of role {} is empty, creating a Player on the leasing thread", role);
+            player = createPlayer(role).join();
+        }
+        return new PlayerLease(this, player
+                .orElseThrow(() -> new AssertionError("Fixture Player with role " + role + " was not created")));
+    }
+
+    /**
+     * Stops topping up and waits for creations in flight, so no fixture Player is created after this method returns
+     */
+    public void close() {
+        closed = true;
+        awaitCreationsInFlight();
+    }
+
+    /**
+     * @return the number of created and pending players of every role
+     */
+    public Map<String, Integer> getAvailableCounts() {
+        final Map<String, Integer> counts = new ConcurrentHashMap<>();
+        players.forEach((role, rolePlayers) -> counts.put(role, rolePlayers.size()));
+        return counts;
+    }
+
+    void giveBack(final Player player) {
+        if (!closed) {
+            queueOf(player.getRole()).offer(CompletableFuture.completedFuture(Optional.of(player)));
+        }
+    }
+
+    void destroy(final Player player) {
+        httpClient.deletePlayerAsync(player.getId(), editor)
+                .whenComplete((response, error) -> {
+                    if (error != null || !response.isSuccessful()) {
+                        log.warn("Fixture Player {} was not deleted, it is left for the clean up after the suite",
+                                player.getId());
+                    }
+                });
+    }
+
+    /**
+     * Starts creation of as many players of the given role as are missing from the pool size
+     * counting created and pending ones. A failed creation is not retried until the next top-up.
+     */
+    private void topUp(final String role) {
+        final BlockingDeque<CompletableFuture<Optional<Player>>> rolePlayers = queueOf(role);
+        final int missing = POOL_SIZES.get(role) - rolePlayers.size();
+        for (int i = 0; i < missing && !closed; i++) {
+            rolePlayers.offer(createPlayer(role));
+        }
+    }
+
+    private CompletableFuture<Optional<Player>> createPlayer(final String role) {
+        final Player player = generator.validPlayer(role);
+        player.setScreenName(player.getScreenName() + screenNameSuffix);
+
+        final CompletableFuture<Optional<Player>> creation = httpClient.createPlayerAsync(player, editor)
+                .thenApply(response -> createdPlayer(player, response))
+                .exceptionally(error -> {
+                    log.warn("Fixture Player {} was not created: {}", player.getLogin(), error.getMessage());
+                    return Optional.empty();
+                });
+        creationsInFlight.add(creation);
+        creation.whenComplete((createdPlayer, error) -> creationsInFlight.remove(creation));
+        return creation;
+    }
+
+    /**
+     * The app returns only some fields of a created Player, so the generated Player is completed by the created id
+     */
+    private static Optional<Player> createdPlayer(final Player player, final PlayerHttpResponse response) {
+        if (!response.isSuccessful()) {
+            log.warn("Fixture Player {} was not created: {}", player.getLogin(), response);
+            return Optional.empty();
+        }
+        final Integer id = response.as(Player.class).getId();
+        if (id == null) {
+            log.warn("Response of fixture Player {} creation has no id: {}", player.getLogin(), response);
+            return Optional.empty();
+        }
+        player.setId(id);
+        return Optional.of(player);
+    }
+
+    /**
+     * @return {@code true} if the creation completed in players.fixtures.lease.timeout.millis
+     */
+    private static boolean await(final CompletableFuture<Optional<Player>> creation) {
+        try {
+            creation.get(LEASE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while waiting for a fixture Player", e);
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("Fixture Player was not created in {} ms, it is left in the pool", LEASE_TIMEOUT_MILLIS);
+            return false;
+        }
+    }
+
+    private void awaitCreationsInFlight() {
+        CompletableFuture.allOf(creationsInFlight.toArray(CompletableFuture<?>[]::new))
+                .exceptionally(error -> null)
+                .join();
+    }
+
+    private BlockingDeque<CompletableFuture<Optional<Player>>> queueOf(final String role) {
+        final BlockingDeque<CompletableFuture<Optional<Player>>> rolePlayers = players.get(role);
+        if (rolePlayers == null) {
+            throw new IllegalArgumentException("Fixture pool has no players with role " + role + ", only "
+                    + List.copyOf(players.keySet()));
+        }
+        return rolePlayers;
+    }
+}
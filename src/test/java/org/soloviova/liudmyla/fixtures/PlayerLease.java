@@ -0,0 +1,77 @@
+package org.soloviova.liudmyla.fixtures;
+
+import org.soloviova.liudmyla.entities.Player;
+
+/**
+ * A Player leased from {@link PlayerFixturePool} for exclusive use by one test.
+ * <p>
+ * When the lease is closed, the Player is deleted unless the test called {@link #returnToPool()},
+ * so a Player which a test changed or failed on is never leased again. A test which deleted the Player itself
+ * should call {@link #markDeleted()}.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class PlayerLease implements AutoCloseable {
+    private final PlayerFixturePool pool;
+    private final Player player;
+    private boolean returned;
+    private boolean deleted;
+
+    PlayerLease(final PlayerFixturePool pool, final Player player) {
+        this.pool = pool;
+        this.player = player;
+    }
+
+    /**
+     * @return copy of the leased Player including its password, so the test can change it freely
+     */
+    public Player getPlayer() {
+        return copyOf(player);
+    }
+
+    public Integer getId() {
+        return player.getId();
+    }
+
+    public String getLogin() {
+        return player.getLogin();
+    }
+
+    /**
+     * Marks the Player as unchanged, so it goes back to the pool when the lease is closed
+     */
+    public void returnToPool() {
+        returned = true;
+    }
+
+    /**
+     * Marks the Player as already deleted by the test
+     */
+    public void markDeleted() {
+        deleted = true;
+    }
+
+    @Override
+    public void close() {
+        if (deleted) {
+            return;
+        }
+        if (returned) {
+            pool.giveBack(player);
+        } else {
+            pool.destroy(player);
+        }
+    }
+
+    static Player copyOf(final Player player) {
+        return Player.builder()
+                .id(player.getId())
+                .login(player.getLogin())
+                .password(player.getPassword())
+                .screenName(player.getScreenName())
+                .gender(player.getGender())
+                .age(player.getAge())
+                .role(player.getRole())
+                .build();
+    }
+}
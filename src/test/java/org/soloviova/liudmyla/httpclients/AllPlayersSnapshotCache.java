@@ -0,0 +1,125 @@
+package org.soloviova.liudmyla.httpclients;
+
+import org.soloviova.liudmyla.entities.PlayerItem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot of all players list shared by all threads. The snapshot is valid while no create, update or delete
+ * request was sent through {@link PlayerControllerHttpClient} after it was requested, and it is not older than
+ * players.snapshot.ttl.millis (1000 by default). The TTL bounds staleness caused by changes made by other clients
+ * of the app. A TTL of zero turns the snapshot off.
+ * <p>
+ * Concurrent readers of a valid snapshot don't block each other. When the snapshot is not valid, only one thread
+ * requests the list, and the others wait for it and get the new snapshot.
+ *
+ * @author Liudmyla Soloviova
+ */
+class AllPlayersSnapshotCache {
+    private static final long TTL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("players.snapshot.ttl.millis", 1_000L));
+
+    private final Supplier<Optional<List<PlayerItem>>> allPlayersFetcher;
+    private final AtomicLong mutationVersion = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+
+    /**
+     * @param allPlayersFetcher requests all players list, returns empty {@link Optional} if the request failed
+     */
+    AllPlayersSnapshotCache(final Supplier<Optional<List<PlayerItem>>> allPlayersFetcher) {
+        this.allPlayersFetcher = allPlayersFetcher;
+    }
+
+    /**
+     * @return {@code false} if players.snapshot.ttl.millis is zero, so a snapshot is never valid
+     */
+    boolean isEnabled() {
+        return TTL_NANOS > 0;
+    }
+
+    /**
+     * @return valid snapshot or the list requested right now, empty list if the request failed
+     */
+    List<PlayerItem> get() {
+        final Snapshot currentSnapshot = snapshot.get();
+        if (isValid(currentSnapshot)) {
+            hits.increment();
+            return currentSnapshot.players;
+        }
+
+        refreshLock.lock();
+        try {
+            final Snapshot refreshedSnapshot = snapshot.get();
+            if (isValid(refreshedSnapshot)) {
+                hits.increment();
+                return refreshedSnapshot.players;
+            }
+            return fetch().orElse(List.of());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Requests all players list bypassing the snapshot. The requested list becomes the new snapshot.
+     *
+     * @return requested list or empty {@link Optional} if the request failed
+     */
+    Optional<List<PlayerItem>> fetch() {
+        final long version = mutationVersion.get();
+        final long requestedAt = System.nanoTime();
+        fetches.increment();
+        final Optional<List<PlayerItem>> players = allPlayersFetcher.get().map(List::copyOf);
+        players.ifPresent(list -> snapshot.accumulateAndGet(new Snapshot(list, version, requestedAt),
+                (current, requested) -> current == null || requested.version >= current.version ? requested : current));
+        return players;
+    }
+
+    /**
+     * Must be called after every create, update and delete request, whether it succeeded or not
+     */
+    void recordMutation() {
+        mutationVersion.incrementAndGet();
+    }
+
+    void invalidate() {
+        snapshot.set(null);
+    }
+
+    SnapshotCacheStatistics getStatistics() {
+        return new SnapshotCacheStatistics(hits.sum(), fetches.sum(), mutationVersion.get());
+    }
+
+    private boolean isValid(final Snapshot currentSnapshot) {
+        return currentSnapshot != null
+                && currentSnapshot.version == mutationVersion.get()
+                && System.nanoTime() - currentSnapshot.requestedAt < TTL_NANOS;
+    }
+
+    /**
+     * All players list with the mutation version and the time at which it was requested.
+     * A list which was requested while a mutation was in flight is tagged with the version before the mutation,
+     * so it is never taken for a snapshot after the mutation.
+     */
+    private static class Snapshot {
+        private final List<PlayerItem> players;
+        private final long version;
+        private final long requestedAt;
+
+        Snapshot(final List<PlayerItem> players, final long version, final long requestedAt) {
+            this.players = players;
+            this.version = version;
+            this.requestedAt = requestedAt;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record and replay of HTTP exchanges with the Player controller.
+ * <p>
+ * Mode is set by players.cassette.mode property: 'record' appends every exchange to the cassette file
+ * players.cassette.file (target/cassettes/players.cassette by default), 'replay' serves responses from the file
+ * without sending requests, any other value turns the cassette off.
+ * <p>
+ * An exchange is identified by HTTP method, path with query and request body. Responses to the same request are
+ * replayed in the recorded order, the last one is repeated when they are exhausted. Test data should be generated
+ * with the same players.data.seed and players.data.prefix in both modes, so the requests are the same.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public final class Cassette {
+    private static final String MODE = System.getProperty("players.cassette.mode", "off");
+    private static final Path FILE = Path.of(System.getProperty("players.cassette.file",
+            "target/cassettes/players.cassette"));
+    private static final Cassette CASSETTE = new Cassette();
+
+    private final CassetteWriter writer;
+    private final CassetteIndex index;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    private Cassette() {
+        try {
+            writer = "record".equals(MODE) ? CassetteWriter.create(FILE) : null;
+            index = "replay".equals(MODE) ? CassetteIndex.load(FILE) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cassette " + FILE + " cannot be opened for " + MODE, e);
+        }
+        if (writer != null || index != null) {
+            log.info("HTTP exchanges are {}ed {} cassette {}", MODE, writer != null ? "to" : "from", FILE);
+        }
+    }
+
+    public static Cassette getInstance() {
+        return CASSETTE;
+    }
+
+    public boolean isRecording() {
+        return writer != null;
+    }
+
+    public boolean isReplaying() {
+        return index != null;
+    }
+
+    /**
+     * Appends the exchange to the cassette. Does nothing if the cassette is not recording.
+     *
+     * @param method      HTTP method
+     * @param uri         requested URI, only its path and query are recorded
+     * @param requestBody request body or {@code null} if there is no body
+     * @param response    received response
+     */
+    public void record(final String method, final URI uri, final byte[] requestBody,
+                       final PlayerHttpResponse response) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.append(exchangeKey(method, uri, requestBody), response);
+            recorded.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exchange cannot be recorded to cassette " + FILE, e);
+        }
+    }
+
+    /**
+     * @return recorded response to the request
+     * @throws IllegalStateException if the cassette is not replaying or the request was not recorded
+     */
+    public PlayerHttpResponse replay(final String method, final URI uri, final byte[] requestBody) {
+        if (index == null) {
+            throw new IllegalStateException("Cassette is not in replay mode");
+        }
+        final String exchangeKey = exchangeKey(method, uri, requestBody);
+        final PlayerHttpResponse response = index.nextResponse(exchangeKey)
+                .orElseThrow(() -> new IllegalStateException("Cassette " + FILE + " has no recorded response to "
+                        + exchangeKey.replace('\n', ' ')));
+        replayed.increment();
+        return response;
+    }
+
+    /**
+     * @return description of the cassette usage or empty string if the cassette is off
+     */
+    public String getStatistics() {
+        if (writer != null) {
+            return String.format("%d exchanges recorded to %s", recorded.sum(), FILE);
+        }
+        if (index != null) {
+            return String.format("%d responses replayed from %d recorded exchanges of %s", replayed.sum(),
+                    index.size(), FILE);
+        }
+        return "";
+    }
+
+    private static String exchangeKey(final String method, final URI uri, final byte[] requestBody) {
+        final String pathAndQuery = uri.getRawQuery() == null
+                ? uri.getRawPath()
+                : uri.getRawPath() + "?" + uri.getRawQuery();
+        final String body = requestBody == null ? "" : new String(requestBody, StandardCharsets.UTF_8);
+        return method + " " + pathAndQuery + "\n" + body;
+    }
+}
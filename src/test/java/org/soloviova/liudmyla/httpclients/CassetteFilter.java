@@ -0,0 +1,61 @@
+package org.soloviova.liudmyla.httpclients;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RestAssured filter which records exchanges to the {@link Cassette} or, in replay mode, returns recorded responses
+ * without passing requests to the next filters
+ *
+ * @author Liudmyla Soloviova
+ */
+class CassetteFilter implements Filter {
+    private final Cassette cassette;
+
+    CassetteFilter(final Cassette cassette) {
+        this.cassette = cassette;
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext context) {
+        final String method = requestSpec.getMethod();
+        final URI uri = URI.create(requestSpec.getURI());
+        final byte[] requestBody = requestBody(requestSpec);
+
+        if (cassette.isReplaying()) {
+            return toResponse(cassette.replay(method, uri, requestBody));
+        }
+        final Response response = context.next(requestSpec, responseSpec);
+        cassette.record(method, uri, requestBody, new PlayerHttpResponse(response.getStatusCode(),
+                response.getContentType(), response.asByteArray()));
+        return response;
+    }
+
+    private static byte[] requestBody(final FilterableRequestSpecification requestSpec) {
+        final Object body = requestSpec.getBody();
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Response toResponse(final PlayerHttpResponse recordedResponse) {
+        final ResponseBuilder responseBuilder = new ResponseBuilder()
+                .setStatusCode(recordedResponse.getStatusCode())
+                .setStatusLine("HTTP/1.1 " + recordedResponse.getStatusCode())
+                .setBody(recordedResponse.getBody());
+        if (recordedResponse.getContentType() != null && !recordedResponse.getContentType().isEmpty()) {
+            responseBuilder.setContentType(recordedResponse.getContentType());
+        }
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,121 @@
+package org.soloviova.liudmyla.httpclients;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index of a cassette file written by {@link CassetteWriter}. The file is memory-mapped and scanned once,
+ * the index keeps only offsets of the recorded responses of every exchange key. Responses are read from
+ * the mapping by absolute reads, so any number of threads can replay them without locks.
+ * A truncated entry at the end of the file is ignored.
+ *
+ * @author Liudmyla Soloviova
+ */
+class CassetteIndex {
+    private final MappedByteBuffer mapping;
+    private final Map<String, RecordedResponses> responses;
+    private final int size;
+
+    private CassetteIndex(final MappedByteBuffer mapping, final Map<String, RecordedResponses> responses,
+                          final int size) {
+        this.mapping = mapping;
+        this.responses = responses;
+        this.size = size;
+    }
+
+    static CassetteIndex load(final Path file) throws IOException {
+        final MappedByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Cassette " + file + " is larger than 2 GB");
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        final byte[] magic = new byte[CassetteWriter.MAGIC.length];
+        if (mapping.limit() >= magic.length) {
+            mapping.get(0, magic);
+        }
+        if (!Arrays.equals(magic, CassetteWriter.MAGIC)) {
+            throw new IOException(file + " is not a cassette file");
+        }
+
+        final Map<String, List<Integer>> offsets = new HashMap<>();
+        int size = 0;
+        int position = magic.length;
+        while (position + Integer.BYTES <= mapping.limit()) {
+            final int entryLength = mapping.getInt(position);
+            final int entryStart = position + Integer.BYTES;
+            if (entryLength < Integer.BYTES || entryStart + entryLength > mapping.limit()) {
+                break;
+            }
+            final String key = readString(mapping, entryStart);
+            offsets.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(entryStart + Integer.BYTES + mapping.getInt(entryStart));
+            size++;
+            position = entryStart + entryLength;
+        }
+
+        final Map<String, RecordedResponses> responses = new HashMap<>();
+        offsets.forEach((key, keyOffsets) -> responses.put(key,
+                new RecordedResponses(keyOffsets.stream().mapToInt(Integer::intValue).toArray())));
+        return new CassetteIndex(mapping, responses, size);
+    }
+
+    /**
+     * @return the next recorded response to the exchange or the last one if all of them were replayed,
+     * empty {@link Optional} if the exchange was not recorded
+     */
+    Optional<PlayerHttpResponse> nextResponse(final String exchangeKey) {
+        final RecordedResponses recordedResponses = responses.get(exchangeKey);
+        return Optional.ofNullable(recordedResponses).map(recorded -> readResponse(recorded.nextOffset()));
+    }
+
+    int size() {
+        return size;
+    }
+
+    private PlayerHttpResponse readResponse(final int offset) {
+        final int statusCode = mapping.getInt(offset);
+        final int contentTypeLength = mapping.getInt(offset + Integer.BYTES);
+        final String contentType = contentTypeLength < 0 ? null : readString(mapping, offset + Integer.BYTES);
+        final int bodyOffset = offset + 2 * Integer.BYTES + Math.max(contentTypeLength, 0);
+        final byte[] body = new byte[mapping.getInt(bodyOffset)];
+        mapping.get(bodyOffset + Integer.BYTES, body);
+        return new PlayerHttpResponse(statusCode, contentType, body);
+    }
+
+    /**
+     * Reads a string written as int length followed by UTF-8 bytes
+     */
+    private static String readString(final ByteBuffer buffer, final int offset) {
+        final byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class RecordedResponses {
+        private final int[] offsets;
+        private final AtomicInteger replayed = new AtomicInteger();
+
+        RecordedResponses(final int[] offsets) {
+            this.offsets = offsets;
+        }
+
+        int nextOffset() {
+            final int replayedCount = replayed.getAndUpdate(count -> count < offsets.length ? count + 1 : count);
+            return offsets[Math.min(replayedCount, offsets.length - 1)];
+        }
+    }
+}
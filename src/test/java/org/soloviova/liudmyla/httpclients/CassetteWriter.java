@@ -0,0 +1,74 @@
+package org.soloviova.liudmyla.httpclients;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only writer of cassette files. A file starts with {@link #MAGIC} followed by entries:
+ * <pre>
+ * int entry length | int key length | key | int status code | int content type length | content type
+ *                  | int body length | body
+ * </pre>
+ * Lengths are in bytes, content type length is -1 if there is no content type. Every entry is written
+ * by one call, so entries of concurrent exchanges are never interleaved.
+ *
+ * @author Liudmyla Soloviova
+ */
+class CassetteWriter {
+    static final byte[] MAGIC = "PLAYCAS1".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+
+    private CassetteWriter(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creates an empty cassette file replacing the existing one
+     */
+    static CassetteWriter create(final Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        final CassetteWriter writer = new CassetteWriter(channel);
+        writer.write(ByteBuffer.wrap(MAGIC));
+        return writer;
+    }
+
+    void append(final String exchangeKey, final PlayerHttpResponse response) throws IOException {
+        final byte[] key = exchangeKey.getBytes(StandardCharsets.UTF_8);
+        final byte[] contentType = response.getContentType() == null
+                ? null
+                : response.getContentType().getBytes(StandardCharsets.UTF_8);
+        final byte[] body = response.getBody() == null ? new byte[0] : response.getBody();
+        final int entryLength = Integer.BYTES + key.length + Integer.BYTES
+                + Integer.BYTES + (contentType == null ? 0 : contentType.length)
+                + Integer.BYTES + body.length;
+
+        final ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + entryLength)
+                .putInt(entryLength)
+                .putInt(key.length)
+                .put(key)
+                .putInt(response.getStatusCode());
+        if (contentType == null) {
+            entry.putInt(-1);
+        } else {
+            entry.putInt(contentType.length).put(contentType);
+        }
+        entry.putInt(body.length).put(body).flip();
+        write(entry);
+    }
+
+    private synchronized void write(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Difference between a player read from the app and its state in {@link PlayerShadowModel}
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ConsistencyViolation {
+    private final Integer playerId;
+    private final String field;
+    private final Object expected;
+    private final Object actual;
+}
@@ -0,0 +1,160 @@
+package org.soloviova.liudmyla.httpclients;
+
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Logger of HTTP exchanges with the Player controller.
+ * <p>
+ * Nothing is formatted unless the message is actually written: request and response bodies are passed to the logger
+ * as views which are converted to strings only by an enabled logger, and they are truncated to
+ * players.log.body.max.bytes (2048 by default).
+ * <p>
+ * If players.log.mode is 'on-failure', messages are not logged at all but kept in a small per-thread ring buffer
+ * of players.log.ring.buffer.size entries. The buffer is dumped by
+ * {@link org.soloviova.liudmyla.listeners.ExchangeLogListener} when a test fails. Asynchronous requests complete
+ * on other threads, so they should capture {@link #currentRecentExchanges()} when they are sent and log their
+ * responses to it with {@link #info(RecentExchanges, String, Object...)}.
+ *
+ * @author Liudmyla Soloviova
+ */
+public final class ExchangeLogger {
+    private static final int MAX_BODY_BYTES = Integer.getInteger("players.log.body.max.bytes", 2048);
+    private static final int RING_BUFFER_SIZE = Integer.getInteger("players.log.ring.buffer.size", 32);
+    private static final boolean LOG_ONLY_ON_FAILURE = "on-failure".equals(System.getProperty("players.log.mode"));
+    private static final ThreadLocal<RecentExchanges> RECENT_EXCHANGES =
+            ThreadLocal.withInitial(RecentExchanges::new);
+    private static final Logger FAILURE_LOG = LoggerFactory.getLogger(ExchangeLogger.class);
+
+    private final Logger logger;
+
+    private ExchangeLogger(final Logger logger) {
+        this.logger = logger;
+    }
+
+    public static ExchangeLogger of(final Class<?> loggingClass) {
+        return new ExchangeLogger(LoggerFactory.getLogger(loggingClass));
+    }
+
+    /**
+     * Logs a message at INFO level or remembers it in the ring buffer of the current thread
+     *
+     * @param format    SLF4J message format
+     * @param arguments message arguments, bodies should be wrapped with {@link #body(byte[])}
+     */
+    public void info(final String format, final Object... arguments) {
+        info(RECENT_EXCHANGES.get(), format, arguments);
+    }
+
+    /**
+     * Logs a message at INFO level or remembers it in the given ring buffer
+     *
+     * @param recentExchanges ring buffer of the test which sent the request, see {@link #currentRecentExchanges()}
+     * @param format          SLF4J message format
+     * @param arguments       message arguments, bodies should be wrapped with {@link #body(byte[])}
+     */
+    public void info(final RecentExchanges recentExchanges, final String format, final Object... arguments) {
+        if (LOG_ONLY_ON_FAILURE) {
+            recentExchanges.remember(MessageFormatter.arrayFormat(format, arguments).getMessage());
+        } else if (logger.isInfoEnabled()) {
+            logger.info(format, arguments);
+        }
+    }
+
+    /**
+     * @return ring buffer of the current thread, which belongs to the test executed by it
+     */
+    public static RecentExchanges currentRecentExchanges() {
+        return RECENT_EXCHANGES.get();
+    }
+
+    /**
+     * Wraps a body to be converted to a truncated string only when it is logged
+     */
+    public static Object body(final byte[] body) {
+        return new BodyView(() -> body);
+    }
+
+    public static Object body(final Response response) {
+        return new BodyView(response::asByteArray);
+    }
+
+    public static Object body(final PlayerHttpResponse response) {
+        return new BodyView(response::getBody);
+    }
+
+    /**
+     * Logs all exchanges remembered by the current thread and clears its ring buffer
+     *
+     * @param reason description of the failure
+     */
+    public static void dumpRecentExchanges(final String reason) {
+        final List<String> recentExchanges = RECENT_EXCHANGES.get().drain();
+        if (!recentExchanges.isEmpty()) {
+            FAILURE_LOG.error("{}. Last {} HTTP exchanges of thread {}:\n{}", reason, recentExchanges.size(),
+                    Thread.currentThread().getName(), String.join("\n", recentExchanges));
+        }
+    }
+
+    /**
+     * Gives the current thread a new ring buffer, so responses to requests of the previous test which complete
+     * later are not mixed with the exchanges of the next one
+     */
+    public static void clearRecentExchanges() {
+        RECENT_EXCHANGES.set(new RecentExchanges());
+    }
+
+    /**
+     * Ring buffer of the last exchanges of one test. It is written by the test thread and by threads which
+     * complete its asynchronous requests.
+     */
+    public static final class RecentExchanges {
+        private final Deque<String> messages = new ArrayDeque<>();
+
+        private RecentExchanges() {
+        }
+
+        private synchronized void remember(final String message) {
+            if (messages.size() == RING_BUFFER_SIZE) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+
+        private synchronized List<String> drain() {
+            final List<String> drained = new ArrayList<>(messages);
+            messages.clear();
+            return drained;
+        }
+    }
+
+    private static class BodyView {
+        private final Supplier<byte[]> bodySupplier;
+
+        BodyView(final Supplier<byte[]> bodySupplier) {
+            this.bodySupplier = bodySupplier;
+        }
+
+        @Override
+        public String toString() {
+            final byte[] body = bodySupplier.get();
+            if (body == null) {
+                return "";
+            }
+            if (body.length <= MAX_BODY_BYTES) {
+                return new String(body, StandardCharsets.UTF_8);
+            }
+            return new String(body, 0, MAX_BODY_BYTES, StandardCharsets.UTF_8)
+                    + String.format("... [truncated, %d bytes in total]", body.length);
+        }
+    }
+}
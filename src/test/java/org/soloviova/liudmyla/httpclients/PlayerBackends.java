@@ -0,0 +1,209 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.standin.PlayerControllerStandInServer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Instances of the Player controller which requests are sent to.
+ * <p>
+ * Base URLs are taken from players.base.url property or PLAYERS_BASE_URL environment variable, several instances
+ * are separated by commas. The stand-in, if enabled, takes precedence over both.
+ * Requests are balanced across instances by players.base.url.balancing: 'round-robin' (default) or
+ * 'least-outstanding', which picks the instance with the fewest requests in flight.
+ * <p>
+ * Requests on the same player are sticky: the first request on a player id picks an instance, and all later
+ * requests on this id go to the same one, so the tests read their own writes even if the instances replicate
+ * data asynchronously. A Player created by login stays on the instance which created it once its id is bound
+ * by {@link #bindToInstanceOf(Integer, String)}. Keys of deleted players and of logins which failed to be created
+ * are dropped by {@link #unbind(Object)}, so the sticky map doesn't outgrow the players which exist.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerBackends {
+    private static final String DEFAULT_BASE_URL = "http://3.68.165.45/player";
+    private static final String BALANCING = System.getProperty("players.base.url.balancing", "round-robin");
+
+    private final List<Instance> instances;
+    private final boolean leastOutstanding;
+    private final AtomicInteger nextInstance = new AtomicInteger();
+    private final Map<Object, Instance> stickyInstances = new ConcurrentHashMap<>();
+
+    PlayerBackends(final List<String> baseUrls, final boolean leastOutstanding) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one base URL of the Player controller is required");
+        }
+        this.instances = baseUrls.stream().map(Instance::new).collect(Collectors.toUnmodifiableList());
+        this.leastOutstanding = leastOutstanding;
+    }
+
+    static PlayerBackends fromConfiguration() {
+        final PlayerBackends backends = new PlayerBackends(configuredBaseUrls(),
+                "least-outstanding".equals(BALANCING));
+        if (backends.instances.size() > 1) {
+            log.info("Requests are balanced by {} across {}", BALANCING, backends.getBaseUrls());
+        }
+        return backends;
+    }
+
+    public List<String> getBaseUrls() {
+        return instances.stream().map(Instance::getBaseUrl).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Sends a request to the instance chosen for the player and counts it as outstanding until it returns
+     *
+     * @param playerKey id or login of the player the request is about, {@code null} if there is no such player
+     * @param request   sends the request to the given instance
+     * @return result of the request
+     */
+    <T> T execute(final Object playerKey, final Function<Instance, T> request) {
+        final Instance instance = select(playerKey);
+        instance.start();
+        try {
+            return request.apply(instance);
+        } finally {
+            instance.finish();
+        }
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #execute(Object, Function)}: the request is outstanding until the returned
+     * future completes
+     */
+    <T> CompletableFuture<T> executeAsync(final Object playerKey,
+                                          final Function<Instance, CompletableFuture<T>> request) {
+        final Instance instance = select(playerKey);
+        instance.start();
+        try {
+            return request.apply(instance).whenComplete((result, error) -> instance.finish());
+        } catch (RuntimeException e) {
+            instance.finish();
+            throw e;
+        }
+    }
+
+    /**
+     * Makes requests on the player id go to the instance which the player was created on by login
+     */
+    void bindToInstanceOf(final Integer playerId, final String playerLogin) {
+        if (instances.size() > 1 && playerId != null && playerLogin != null) {
+            final Instance instance = stickyInstances.get(playerLogin);
+            if (instance != null) {
+                stickyInstances.put(playerId, instance);
+            }
+        }
+    }
+
+    /**
+     * Forgets the instance chosen for the player id or login, the next request on it is balanced again
+     */
+    void unbind(final Object playerKey) {
+        if (playerKey != null) {
+            stickyInstances.remove(playerKey);
+        }
+    }
+
+    public List<InstanceStatistics> getStatistics() {
+        return instances.stream()
+                .map(instance -> new InstanceStatistics(instance.baseUrl, instance.requests.sum(),
+                        instance.outstanding.get()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Instance select(final Object playerKey) {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+        return playerKey == null ? balance() : stickyInstances.computeIfAbsent(playerKey, key -> balance());
+    }
+
+    private Instance balance() {
+        final int first = Math.floorMod(nextInstance.getAndIncrement(), instances.size());
+        if (!leastOutstanding) {
+            return instances.get(first);
+        }
+        Instance leastBusy = instances.get(first);
+        for (int i = 1; i < instances.size(); i++) {
+            final Instance instance = instances.get((first + i) % instances.size());
+            if (instance.outstanding.get() < leastBusy.outstanding.get()) {
+                leastBusy = instance;
+            }
+        }
+        return leastBusy;
+    }
+
+    private static List<String> configuredBaseUrls() {
+        if (PlayerControllerStandInServer.isEnabled()) {
+            return List.of(PlayerControllerStandInServer.getBaseUrl());
+        }
+        String baseUrls = System.getProperty("players.base.url");
+        if (baseUrls == null || baseUrls.isBlank()) {
+            baseUrls = System.getenv("PLAYERS_BASE_URL");
+        }
+        if (baseUrls == null || baseUrls.isBlank()) {
+            return List.of(DEFAULT_BASE_URL);
+        }
+        return Arrays.stream(baseUrls.split(","))
+                .map(String::trim)
+                .filter(baseUrl -> !baseUrl.isEmpty())
+                .map(baseUrl -> baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * One instance of the Player controller
+     */
+    static class Instance {
+        @Getter
+        private final String baseUrl;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+
+        Instance(final String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /**
+         * @param path endpoint path, e.g. '/get/all'
+         * @return URL of the endpoint on this instance
+         */
+        String url(final String path) {
+            return baseUrl + path;
+        }
+
+        private void start() {
+            outstanding.incrementAndGet();
+            requests.increment();
+        }
+
+        private void finish() {
+            outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of requests sent to an instance and of its requests in flight
+     */
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class InstanceStatistics {
+        private final String baseUrl;
+        private final long requests;
+        private final int outstanding;
+    }
+}
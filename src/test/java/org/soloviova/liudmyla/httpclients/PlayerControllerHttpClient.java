@@ -2,37 +2,99 @@ package org.soloviova.liudmyla.httpclients;
 
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.soloviova.liudmyla.concurrency.ConcurrencyLimit;
+import org.soloviova.liudmyla.concurrency.ServerPermits;
+import org.soloviova.liudmyla.concurrency.StripedLock;
 import org.soloviova.liudmyla.entities.Player;
 import org.soloviova.liudmyla.entities.PlayerIdItem;
 import org.soloviova.liudmyla.entities.PlayerItem;
 import org.soloviova.liudmyla.mappers.PlayerMapper;
+import org.soloviova.liudmyla.metrics.EndpointLatencies;
+import org.soloviova.liudmyla.metrics.LatencyFilter;
+import org.soloviova.liudmyla.metrics.LatencyRecorder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-
-import static io.restassured.RestAssured.given;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
 
 /**
  * This class contains common functionality that actually performs create, delete, update and get operations on players
  * but does not contain assertions. All assertions are made in tests.
+ * <p>
+ * Besides blocking RestAssured based methods there is a non-blocking companion API built on JDK {@link HttpClient}.
+ * Its methods return {@link CompletableFuture} of {@link PlayerHttpResponse}, so many requests can be in flight
+ * from a handful of threads. Asynchronous mutations keep the login index up to date, but are not serialized
+ * by the player locks.
+ * <p>
+ * All players list is read with the streaming parser. {@link #findPlayerItemSuppressRequestException(Predicate)}
+ * searches the shared snapshot of the list, or, if the snapshot is off, visits the streamed players one at a time
+ * and stops reading the response at the first match.
+ * <p>
+ * Both APIs hold one of server permits while a request is executed. The number of permits is set by
+ * players.server.permits property and is the upper bound of requests sent to the server at the same time.
+ * Latency of every request is recorded by {@link LatencyRecorder} under its endpoint template.
+ * <p>
+ * All players list is cached by {@link AllPlayersSnapshotCache}: every create, update and delete request sent
+ * through this client, synchronous or not, invalidates the snapshot.
+ * <p>
+ * Exchanges of both APIs can be recorded to a {@link Cassette} and replayed from it without network.
+ * <p>
+ * Mutations and reads of single players of both APIs are tracked by {@link PlayerShadowModel} when it is enabled.
  *
  * @author Liudmyla Soloviova
  */
 @Slf4j
 public class PlayerControllerHttpClient {
-    public static final String BASE_URL = "http://3.68.165.45/player";
-    private static final String GET_PLAYER_BY_ID_URL = BASE_URL + "/get";
-    private static final String GET_ALL_PLAYERS_URL = BASE_URL + "/get/all";
-    private static final String CREATE_PLAYER_URL = BASE_URL + "/create/{editor}";
-    private static final String DELETE_PLAYER_URL = BASE_URL + "/delete/{editor}";
-    private static final String UPDATE_PLAYER_URL = BASE_URL + "/update/{editor}/{id}";
+    private static final PlayerBackends BACKENDS = PlayerBackends.fromConfiguration();
+    /**
+     * Base URL of the first configured instance of the Player controller
+     */
+    public static final String BASE_URL = BACKENDS.getBaseUrls().get(0);
+    public static final String GET_PLAYER_BY_ID_PATH = "/get";
+    public static final String GET_ALL_PLAYERS_PATH = "/get/all";
+    public static final String CREATE_PLAYER_PATH = "/create/{editor}";
+    public static final String DELETE_PLAYER_PATH = "/delete/{editor}";
+    public static final String UPDATE_PLAYER_PATH = "/update/{editor}/{id}";
+    private static final int LOCK_STRIPES = Integer.getInteger("players.lock.stripes", 64);
+    private static final int SERVER_PERMITS = Integer.getInteger("players.server.permits", 64);
+    private static final ExchangeLogger exchangeLog = ExchangeLogger.of(PlayerControllerHttpClient.class);
     private static PlayerControllerHttpClient playerControllerClient;
 
     private final PlayerMapper mapper;
+    private final PlayerLoginIndex loginIndex;
+    private final AllPlayersSnapshotCache allPlayersSnapshot;
+    private final StripedLock playerLocks;
+    private final ServerPermits serverPermits;
+    private final HttpClient asyncHttpClient;
+    private final Cassette cassette;
+    private final PlayerShadowModel shadowModel;
 
     private PlayerControllerHttpClient() {
         mapper = PlayerMapper.getInstance();
+        allPlayersSnapshot = new AllPlayersSnapshotCache(this::fetchAllPlayers);
+        loginIndex = new PlayerLoginIndex(allPlayersSnapshot::fetch, this::findPlayerById);
+        playerLocks = new StripedLock(LOCK_STRIPES);
+        serverPermits = new ServerPermits(ConcurrencyLimit.fromConfiguration(SERVER_PERMITS));
+        asyncHttpClient = PlayerHttpTransport.asyncHttpClient();
+        cassette = Cassette.getInstance();
+        shadowModel = PlayerShadowModel.fromConfiguration();
     }
 
     public static synchronized PlayerControllerHttpClient getInstance() {
@@ -43,37 +105,131 @@ public class PlayerControllerHttpClient {
     }
 
     public Response getAllPlayers() {
-        log.info("Getting list of all registered users");
-        final Response response = given().baseUri(GET_ALL_PLAYERS_URL).when().get();
-        log.info("Obtained response: {}", response.asPrettyString());
+        exchangeLog.info("Getting list of all registered users");
+        final Response response = BACKENDS.execute(null, instance ->
+                request(GET_ALL_PLAYERS_PATH).baseUri(instance.url(GET_ALL_PLAYERS_PATH)).when().get());
+        exchangeLog.info("Obtained response: {}", ExchangeLogger.body(response));
 
         return response;
     }
 
+    /**
+     * Requests all players list. The obtained list also becomes the snapshot returned by
+     * {@link #getAllPlayersSnapshot()}.
+     *
+     * @return list of all players or empty list if the request failed
+     */
     public List<PlayerItem> getAllPlayersSuppressRequestException() {
+        return getAllPlayersIfObtained().orElse(List.of());
+    }
+
+    /**
+     * Requests all players list as {@link #getAllPlayersSuppressRequestException()} does, but tells a failed
+     * request from an empty list
+     *
+     * @return list of all players or empty {@link Optional} if the request failed
+     */
+    public Optional<List<PlayerItem>> getAllPlayersIfObtained() {
+        return allPlayersSnapshot.fetch();
+    }
+
+    /**
+     * Returns all players list without a request if none of create, update and delete requests was sent through
+     * this client since the list was obtained, and it was obtained less than players.snapshot.ttl.millis ago.
+     * Otherwise the list is requested by one of the calling threads.
+     *
+     * @return unmodifiable list of all players or empty list if the request failed
+     */
+    public List<PlayerItem> getAllPlayersSnapshot() {
+        return allPlayersSnapshot.get();
+    }
+
+    /**
+     * Drops the snapshot of all players list, so the next {@link #getAllPlayersSnapshot()} requests it.
+     * Should be called when the snapshot is suspected to miss changes made by other clients.
+     */
+    public void invalidateAllPlayersSnapshot() {
+        allPlayersSnapshot.invalidate();
+    }
+
+    public SnapshotCacheStatistics getAllPlayersSnapshotStatistics() {
+        return allPlayersSnapshot.getStatistics();
+    }
+
+    /**
+     * Reads all players list with the streaming parser, which is much cheaper than RestAssured jsonPath
+     */
+    private Optional<List<PlayerItem>> fetchAllPlayers() {
+        exchangeLog.info("Getting list of all registered users");
         try {
-            return getAllPlayers()
-                    .then()
-                    .extract()
-                    .jsonPath()
-                    .getList("players", PlayerItem.class);
+            final List<PlayerItem> playerItems = readAllPlayers(mapper::readPlayerItems);
+            exchangeLog.info("Obtained {} players", playerItems.size());
+            return Optional.of(playerItems);
         } catch (Exception e) {
             log.error("An exception occurred while getting the list of all players:\n{}", e.getMessage());
-            return List.of();
+            return Optional.empty();
         }
     }
 
+    /**
+     * Returns the first {@link PlayerItem} which matches the predicate. The snapshot of all players list is
+     * searched, so there is no request while it is valid, and only one of concurrent callers requests the list
+     * when it is not. If the snapshot is off, the list is streamed: it is not materialized, and reading
+     * of the response stops at the first match, so memory usage doesn't depend on the number of players.
+     *
+     * @param predicate condition of the player to find
+     * @return the first matching player or empty {@link Optional} if there is no such player
+     * or the request failed
+     */
+    public Optional<PlayerItem> findPlayerItemSuppressRequestException(final Predicate<? super PlayerItem> predicate) {
+        if (allPlayersSnapshot.isEnabled()) {
+            return allPlayersSnapshot.get().stream().filter(predicate).findFirst();
+        }
+        exchangeLog.info("Streaming list of all registered users");
+        try {
+            final Optional<PlayerItem> playerItem = readAllPlayers(body -> mapper.findFirstPlayerItem(body, predicate));
+            exchangeLog.info("Streamed response: {}",
+                    playerItem.map(item -> "found " + item).orElse("no matching player"));
+            return playerItem;
+        } catch (Exception e) {
+            log.error("An exception occurred while streaming the list of all players:\n{}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sends /get/all request with JDK {@link HttpClient} and hands the response body to the reader as a stream,
+     * or replays the body from the cassette
+     */
+    private <T> T readAllPlayers(final AllPlayersReader<T> reader) {
+        return BACKENDS.execute(null, instance -> {
+            final HttpRequest request = HttpRequest.newBuilder(URI.create(instance.url(GET_ALL_PLAYERS_PATH)))
+                    .timeout(PlayerHttpTransport.requestTimeout())
+                    .GET()
+                    .build();
+            return cassette.isReplaying()
+                    ? replayAllPlayers(request, reader)
+                    : serverPermits.withPermit(() -> streamAllPlayers(request, reader));
+        });
+    }
+
     public Response getPlayerById(final Integer playerId) {
-        log.info("Getting a Player with id {}", playerId);
+        exchangeLog.info("Getting a Player with id {}", playerId);
         final PlayerIdItem playerIdItem = new PlayerIdItem(playerId);
 
-        log.info("Executing POST request to endpoint: {}", GET_PLAYER_BY_ID_URL);
-        val givenRequestParams = given().contentType(ContentType.JSON).body(playerIdItem);
-        log.info("Request body to be sent: {}", mapper.mapPlayerObjectToJsonStringSuppressException(playerIdItem));
+        final byte[] requestBody = mapper.mapPlayerObjectToJsonBytesSuppressException(playerIdItem);
+        val givenRequestParams = request(GET_PLAYER_BY_ID_PATH).contentType(ContentType.JSON).body(requestBody);
+        exchangeLog.info("Request body to be sent: {}", ExchangeLogger.body(requestBody));
 
-        final Response response = givenRequestParams.when().post(GET_PLAYER_BY_ID_URL);
-        log.info("Obtained response: {}", response.asPrettyString());
+        final long shadowVersion = shadowModel.beforeRead(playerId);
+        final Response response = BACKENDS.execute(playerId, instance -> {
+            exchangeLog.info("Executing POST request to endpoint: {}", instance.url(GET_PLAYER_BY_ID_PATH));
+            return givenRequestParams.when().post(instance.url(GET_PLAYER_BY_ID_PATH));
+        });
+        exchangeLog.info("Obtained response: {}", ExchangeLogger.body(response));
 
+        indexPlayerFromResponse(response, playerId, null);
+        verifyShadowRead(playerId, shadowVersion, response.getStatusCode(), () -> response.as(Player.class));
         return response;
     }
 
@@ -86,56 +242,560 @@ public class PlayerControllerHttpClient {
         }
     }
 
-    public synchronized Response deletePlayer(final Integer playerId, final String editor) {
-        log.info("Deleting Player with id {}", playerId);
+    /**
+     * Returns the state of a Player expected by {@link PlayerShadowModel} without a request, unless the model
+     * is disabled, doesn't know the player or samples this check for verification. A verifying request is
+     * compared with the model, and differences are reported as {@link ConsistencyViolation}s.
+     *
+     * @param playerId id of the Player
+     * @return expected or obtained Player
+     */
+    public Player getPlayerCheckedAgainstShadowModel(final Integer playerId) {
+        final Optional<Player> expectedPlayer = shadowModel.getExpectedPlayer(playerId);
+        if (expectedPlayer.isPresent() && !shadowModel.shouldVerify(playerId)) {
+            log.debug("Player with id {} is taken from the shadow model", playerId);
+            return expectedPlayer.get();
+        }
+        return getPlayerByIdSuppressRequestException(playerId);
+    }
+
+    /**
+     * Finds id of a Player with the given login using the login index. HTTP requests are sent only if the login
+     * is not indexed yet.
+     *
+     * @param playerLogin login of the Player
+     * @return id of the Player or empty {@link Optional} if there is no such player in the app
+     */
+    public Optional<Integer> findPlayerIdByLogin(final String playerLogin) {
+        return loginIndex.findPlayerId(playerLogin);
+    }
+
+    /**
+     * Returns id of a Player with the given login only if it is already indexed, without any HTTP requests.
+     * Players created through this client are indexed from the responses and removed when they are deleted.
+     *
+     * @param playerLogin login of the Player
+     * @return indexed id of the Player
+     */
+    public Optional<Integer> getIndexedPlayerIdByLogin(final String playerLogin) {
+        return loginIndex.getIndexedPlayerId(playerLogin);
+    }
+
+    /**
+     * Returns locks which serialize create, update and delete operations on the same player.
+     * They can be used by callers to make check-then-act sequences on a single player atomic.
+     * Update and delete lock the player id, which never changes. Create locks the login, because the id
+     * is not known before the player is created.
+     *
+     * @return {@link StripedLock} keyed by player id or, for creation, login
+     */
+    public StripedLock getPlayerLocks() {
+        return playerLocks;
+    }
+
+    public Response deletePlayer(final Integer playerId, final String editor) {
+        return playerLocks.withLock(playerId, () -> executeDeletePlayer(playerId, editor));
+    }
+
+    private Response executeDeletePlayer(final Integer playerId, final String editor) {
+        exchangeLog.info("Deleting Player with id {}", playerId);
         final PlayerIdItem playerIdItem = new PlayerIdItem(playerId);
 
-        log.info("Executing DELETE request to endpoint: {}, where editor - {}", DELETE_PLAYER_URL, editor);
-        val givenRequestParams = given().contentType(ContentType.JSON).body(playerIdItem);
-        log.info("Request body to be sent: {}", mapper.mapPlayerObjectToJsonStringSuppressException(playerIdItem));
+        final byte[] requestBody = mapper.mapPlayerObjectToJsonBytesSuppressException(playerIdItem);
+        val givenRequestParams = request(DELETE_PLAYER_PATH).contentType(ContentType.JSON).body(requestBody);
+        exchangeLog.info("Request body to be sent: {}", ExchangeLogger.body(requestBody));
 
-        final Response response = givenRequestParams.when().delete(DELETE_PLAYER_URL, editor);
-        log.info("Obtained response: {}", response.asPrettyString());
+        shadowModel.beginMutation(playerId);
+        final Response response;
+        try {
+            response = BACKENDS.execute(playerId, instance -> {
+                exchangeLog.info("Executing DELETE request to endpoint: {}, where editor - {}",
+                        instance.url(DELETE_PLAYER_PATH), editor);
+                return givenRequestParams.when().delete(instance.url(DELETE_PLAYER_PATH), editor);
+            });
+        } catch (RuntimeException e) {
+            shadowModel.abandonMutation(playerId);
+            throw e;
+        } finally {
+            allPlayersSnapshot.recordMutation();
+        }
+        exchangeLog.info("Obtained response: {}", ExchangeLogger.body(response));
+        completeShadowMutation(playerId, response.getStatusCode(), null, null, true);
 
+        if (isSuccessful(response)) {
+            unbindDeletedPlayer(playerId);
+            loginIndex.remove(playerId);
+        }
         return response;
     }
 
-    public synchronized Response createPlayer(final Player player, final String editor) {
-        log.info("Creating a new Player: {}", player.toString());
-        log.info("Executing GET request to endpoint: {}, where editor - {}", CREATE_PLAYER_URL, editor);
+    public Response createPlayer(final Player player, final String editor) {
+        return playerLocks.withLock(player.getLogin(), () -> executeCreatePlayer(player, editor));
+    }
+
+    private Response executeCreatePlayer(final Player player, final String editor) {
+        exchangeLog.info("Creating a new Player: {}", player);
 
-        val givenRequestParams = given()
+        val givenRequestParams = request(CREATE_PLAYER_PATH)
                 .param("age", player.getAge())
                 .param("gender", player.getGender())
                 .param("login", player.getLogin())
                 .param("password", player.getPassword())
                 .param("role", player.getRole())
                 .param("screenName", player.getScreenName());
-        log.info("Request params: {}", givenRequestParams.log().params());
 
-        final Response response = givenRequestParams.get(CREATE_PLAYER_URL, editor);
-        log.info("Obtained response: {}", response.asPrettyString());
+        final Response response;
+        try {
+            response = BACKENDS.execute(player.getLogin(), instance -> {
+                exchangeLog.info("Executing GET request to endpoint: {}, where editor - {}",
+                        instance.url(CREATE_PLAYER_PATH), editor);
+                return givenRequestParams.get(instance.url(CREATE_PLAYER_PATH), editor);
+            });
+        } finally {
+            allPlayersSnapshot.recordMutation();
+        }
+        exchangeLog.info("Obtained response: {}", ExchangeLogger.body(response));
 
+        indexPlayerFromResponse(response, null, player.getLogin());
+        bindToCreatingInstance(response.getStatusCode(), player.getLogin());
+        completeShadowMutation(null, response.getStatusCode(), () -> response.as(Player.class), player, false);
         return response;
     }
 
-    public synchronized Response updatePlayer(final Integer playerId,
-                                              final String editorLogin,
-                                              final Player updatedPlayer) {
-        log.info("Updating player with id {} by editor {}. Data to update: {}",
-                playerId, editorLogin, updatedPlayer.toString());
-        log.info("Executing PATCH request to endpoint: {}, where editor - {}, id - {}",
-                UPDATE_PLAYER_URL, editorLogin, playerId);
-        log.info("Request body to be sent: {}", mapper.mapPlayerObjectToJsonStringSuppressException(updatedPlayer));
+    public Response updatePlayer(final Integer playerId, final String editorLogin, final Player updatedPlayer) {
+        return playerLocks.withLock(playerId, () -> executeUpdatePlayer(playerId, editorLogin, updatedPlayer));
+    }
+
+    private Response executeUpdatePlayer(final Integer playerId,
+                                         final String editorLogin,
+                                         final Player updatedPlayer) {
+        exchangeLog.info("Updating player with id {} by editor {}. Data to update: {}",
+                playerId, editorLogin, updatedPlayer);
+        final byte[] requestBody = mapper.mapPlayerObjectToJsonBytesSuppressException(updatedPlayer);
+        exchangeLog.info("Request body to be sent: {}", ExchangeLogger.body(requestBody));
 
-        val response = given()
-                .contentType(ContentType.JSON)
-                .body(updatedPlayer)
-                .when()
-                .patch(UPDATE_PLAYER_URL, editorLogin, playerId);
+        shadowModel.beginMutation(playerId);
+        final Response response;
+        try {
+            response = BACKENDS.execute(playerId, instance -> {
+                exchangeLog.info("Executing PATCH request to endpoint: {}, where editor - {}, id - {}",
+                        instance.url(UPDATE_PLAYER_PATH), editorLogin, playerId);
+                return request(UPDATE_PLAYER_PATH)
+                        .contentType(ContentType.JSON)
+                        .body(requestBody)
+                        .when()
+                        .patch(instance.url(UPDATE_PLAYER_PATH), editorLogin, playerId);
+            });
+        } catch (RuntimeException e) {
+            shadowModel.abandonMutation(playerId);
+            throw e;
+        } finally {
+            allPlayersSnapshot.recordMutation();
+        }
 
-        log.info("Obtained response: {}", response.asPrettyString());
+        exchangeLog.info("Obtained response: {}", ExchangeLogger.body(response));
 
+        indexPlayerFromResponse(response, playerId, updatedPlayer.getLogin());
+        completeShadowMutation(playerId, response.getStatusCode(), () -> response.as(Player.class), updatedPlayer,
+                false);
         return response;
     }
+
+    public CompletableFuture<PlayerHttpResponse> getAllPlayersAsync() {
+        exchangeLog.info("Getting list of all registered users asynchronously");
+        return BACKENDS.executeAsync(null, instance -> sendAsync(
+                HttpRequest.newBuilder(URI.create(instance.url(GET_ALL_PLAYERS_PATH)))
+                        .timeout(PlayerHttpTransport.requestTimeout())
+                        .GET()
+                        .build(), null, GET_ALL_PLAYERS_PATH));
+    }
+
+    public CompletableFuture<PlayerHttpResponse> getPlayerByIdAsync(final Integer playerId) {
+        exchangeLog.info("Getting a Player with id {} asynchronously", playerId);
+        final byte[] requestBody = mapper.mapPlayerObjectToJsonBytesSuppressException(new PlayerIdItem(playerId));
+
+        final long shadowVersion = shadowModel.beforeRead(playerId);
+        return BACKENDS.executeAsync(playerId, instance -> sendAsync(
+                        jsonRequest("POST", URI.create(instance.url(GET_PLAYER_BY_ID_PATH)), requestBody), requestBody,
+                        GET_PLAYER_BY_ID_PATH))
+                .thenApply(response -> {
+                    indexPlayerFromResponse(response, playerId, null);
+                    verifyShadowRead(playerId, shadowVersion, response.getStatusCode(),
+                            () -> response.as(Player.class));
+                    return response;
+                });
+    }
+
+    public CompletableFuture<PlayerHttpResponse> deletePlayerAsync(final Integer playerId, final String editor) {
+        exchangeLog.info("Deleting Player with id {} asynchronously, where editor - {}", playerId, editor);
+        final byte[] requestBody = mapper.mapPlayerObjectToJsonBytesSuppressException(new PlayerIdItem(playerId));
+
+        shadowModel.beginMutation(playerId);
+        final CompletableFuture<PlayerHttpResponse> responseFuture;
+        try {
+            responseFuture = BACKENDS.executeAsync(playerId, instance -> sendAsync(
+                    jsonRequest("DELETE", expandUrl(instance.url(DELETE_PLAYER_PATH), editor), requestBody),
+                    requestBody, DELETE_PLAYER_PATH));
+        } catch (RuntimeException e) {
+            shadowModel.abandonMutation(playerId);
+            throw e;
+        }
+        return responseFuture
+                .whenComplete((response, error) -> {
+                    allPlayersSnapshot.recordMutation();
+                    completeShadowMutation(playerId, response == null ? null : response.getStatusCode(), null, null,
+                            true);
+                })
+                .thenApply(response -> {
+                    if (response.isSuccessful()) {
+                        unbindDeletedPlayer(playerId);
+                        loginIndex.remove(playerId);
+                    }
+                    return response;
+                });
+    }
+
+    public CompletableFuture<PlayerHttpResponse> createPlayerAsync(final Player player, final String editor) {
+        exchangeLog.info("Creating a new Player asynchronously: {}, where editor - {}", player, editor);
+        final StringJoiner query = new StringJoiner("&", "?", "");
+        addQueryParam(query, "age", player.getAge());
+        addQueryParam(query, "gender", player.getGender());
+        addQueryParam(query, "login", player.getLogin());
+        addQueryParam(query, "password", player.getPassword());
+        addQueryParam(query, "role", player.getRole());
+        addQueryParam(query, "screenName", player.getScreenName());
+
+        return BACKENDS.executeAsync(player.getLogin(), instance -> {
+                    final URI uri = URI.create(expandUrl(instance.url(CREATE_PLAYER_PATH), editor) + query.toString());
+                    return sendAsync(HttpRequest.newBuilder(uri)
+                            .timeout(PlayerHttpTransport.requestTimeout())
+                            .GET()
+                            .build(), null, CREATE_PLAYER_PATH);
+                })
+                .whenComplete((response, error) -> allPlayersSnapshot.recordMutation())
+                .thenApply(response -> {
+                    indexPlayerFromResponse(response, null, player.getLogin());
+                    bindToCreatingInstance(response.getStatusCode(), player.getLogin());
+                    completeShadowMutation(null, response.getStatusCode(), () -> response.as(Player.class), player,
+                            false);
+                    return response;
+                });
+    }
+
+    public CompletableFuture<PlayerHttpResponse> updatePlayerAsync(final Integer playerId,
+                                                                   final String editorLogin,
+                                                                   final Player updatedPlayer) {
+        exchangeLog.info("Updating player with id {} by editor {} asynchronously. Data to update: {}",
+                playerId, editorLogin, updatedPlayer);
+        final byte[] requestBody = mapper.mapPlayerObjectToJsonBytesSuppressException(updatedPlayer);
+
+        shadowModel.beginMutation(playerId);
+        final CompletableFuture<PlayerHttpResponse> responseFuture;
+        try {
+            responseFuture = BACKENDS.executeAsync(playerId, instance -> sendAsync(
+                    jsonRequest("PATCH", expandUrl(instance.url(UPDATE_PLAYER_PATH), editorLogin, playerId),
+                            requestBody), requestBody, UPDATE_PLAYER_PATH));
+        } catch (RuntimeException e) {
+            shadowModel.abandonMutation(playerId);
+            throw e;
+        }
+        return responseFuture
+                .whenComplete((response, error) -> {
+                    allPlayersSnapshot.recordMutation();
+                    completeShadowMutation(playerId, response == null ? null : response.getStatusCode(),
+                            () -> response.as(Player.class), updatedPlayer, false);
+                })
+                .thenApply(response -> {
+                    indexPlayerFromResponse(response, playerId, updatedPlayer.getLogin());
+                    return response;
+                });
+    }
+
+    public PlayerBackends getBackends() {
+        return BACKENDS;
+    }
+
+    public ServerPermits getServerPermits() {
+        return serverPermits;
+    }
+
+    public PlayerShadowModel getShadowModel() {
+        return shadowModel;
+    }
+
+    /**
+     * Starts a RestAssured request with the shared transport configuration.
+     * The request holds a server permit while it is executed, and its latency is recorded
+     * under the given endpoint template excluding time spent waiting for the permit.
+     */
+    private RequestSpecification request(final String endpoint) {
+        return PlayerHttpTransport.given()
+                .filter((requestSpec, responseSpec, context) ->
+                        serverPermits.withPermit(() -> context.next(requestSpec, responseSpec),
+                                response -> ServerPermits.isOverloadStatus(response.getStatusCode())))
+                .filter(new LatencyFilter(endpoint));
+    }
+
+    /**
+     * Sends an asynchronous request. The calling thread never waits: if all server permits are taken, the request
+     * is sent when one of them is released, and the permit is released when the response is received.
+     * Latency is recorded under the given endpoint template, and both the latency and the response log are
+     * attributed to the test which sent the request. If the {@link Cassette} is replaying, the recorded response
+     * is returned without a permit and a request.
+     */
+    private CompletableFuture<PlayerHttpResponse> sendAsync(final HttpRequest request,
+                                                            final byte[] requestBody,
+                                                            final String endpoint) {
+        exchangeLog.info("Executing asynchronous {} request to endpoint: {}", request.method(), request.uri());
+        if (cassette.isReplaying()) {
+            try {
+                return CompletableFuture.completedFuture(cassette.replay(request.method(), request.uri(), requestBody));
+            } catch (IllegalStateException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        final EndpointLatencies testLatencies = LatencyRecorder.currentTestLatencies();
+        final ExchangeLogger.RecentExchanges recentExchanges = ExchangeLogger.currentRecentExchanges();
+        return serverPermits.acquireAsync()
+                .thenCompose(permit -> {
+                    final long start = System.nanoTime();
+                    final CompletableFuture<HttpResponse<byte[]>> responseFuture;
+                    try {
+                        responseFuture = asyncHttpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+                    } catch (RuntimeException e) {
+                        serverPermits.release(start, true);
+                        throw e;
+                    }
+                    return responseFuture.whenComplete((response, error) -> {
+                        serverPermits.release(start,
+                                error != null || ServerPermits.isOverloadStatus(response.statusCode()));
+                        LatencyRecorder.record(testLatencies, request.method(), endpoint,
+                                response != null ? response.statusCode() : 0, System.nanoTime() - start);
+                    });
+                })
+                .thenApply(response -> {
+                    final PlayerHttpResponse playerHttpResponse = new PlayerHttpResponse(response.statusCode(),
+                            response.headers().firstValue("Content-Type").orElse(null),
+                            response.body());
+                    cassette.record(request.method(), request.uri(), requestBody, playerHttpResponse);
+                    return playerHttpResponse;
+                })
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("Asynchronous {} request to {} failed: {}",
+                                request.method(), request.uri(), error.getMessage());
+                    } else {
+                        exchangeLog.info(recentExchanges, "Obtained response for {} {}: {} {}", request.method(),
+                                request.uri(), response.getStatusCode(), ExchangeLogger.body(response));
+                    }
+                });
+    }
+
+    private <T> T streamAllPlayers(final HttpRequest request, final AllPlayersReader<T> reader) {
+        final long start = System.nanoTime();
+        int statusCode = 0;
+        try {
+            final HttpResponse<InputStream> response =
+                    asyncHttpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            statusCode = response.statusCode();
+            try (InputStream body = cassette.isRecording() ? recordedBody(request, response) : response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Unexpected status code " + response.statusCode());
+                }
+                return reader.read(body);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming " + request.uri(), e);
+        } finally {
+            LatencyRecorder.record(request.method(), GET_ALL_PLAYERS_PATH, statusCode, System.nanoTime() - start);
+        }
+    }
+
+    private <T> T replayAllPlayers(final HttpRequest request, final AllPlayersReader<T> reader) {
+        try {
+            final PlayerHttpResponse response = cassette.replay(request.method(), request.uri(), null);
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("Unexpected status code " + response.getStatusCode());
+            }
+            return reader.read(new ByteArrayInputStream(response.getBody()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the whole streamed body to record it to the cassette
+     */
+    private InputStream recordedBody(final HttpRequest request,
+                                     final HttpResponse<InputStream> response) throws IOException {
+        final byte[] body;
+        try (InputStream responseBody = response.body()) {
+            body = responseBody.readAllBytes();
+        }
+        cassette.record(request.method(), request.uri(), null, new PlayerHttpResponse(response.statusCode(),
+                response.headers().firstValue("Content-Type").orElse(null), body));
+        return new ByteArrayInputStream(body);
+    }
+
+    private HttpRequest jsonRequest(final String method, final URI uri, final byte[] requestBody) {
+        exchangeLog.info("Request body to be sent: {}", ExchangeLogger.body(requestBody));
+        return HttpRequest.newBuilder(uri)
+                .timeout(PlayerHttpTransport.requestTimeout())
+                .header("Content-Type", ContentType.JSON.toString())
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(requestBody))
+                .build();
+    }
+
+    private static URI expandUrl(final String urlTemplate, final Object... pathParams) {
+        String url = urlTemplate;
+        for (final Object pathParam : pathParams) {
+            url = url.replaceFirst("\\{[^}]+}", Matcher.quoteReplacement(encode(pathParam)));
+        }
+        return URI.create(url);
+    }
+
+    private static void addQueryParam(final StringJoiner query, final String name, final Object value) {
+        if (value != null) {
+            query.add(name + "=" + encode(value));
+        }
+    }
+
+    private static String encode(final Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+
+    /**
+     * Requests on the created player by id go to the instance which created it. If the player was not created,
+     * the instance chosen for the login is forgotten unless the login belongs to a known player.
+     */
+    private void bindToCreatingInstance(final int statusCode, final String playerLogin) {
+        final Optional<Integer> playerId = loginIndex.getIndexedPlayerId(playerLogin);
+        if (statusCode >= 200 && statusCode < 300) {
+            playerId.ifPresent(id -> BACKENDS.bindToInstanceOf(id, playerLogin));
+        } else if (playerId.isEmpty()) {
+            BACKENDS.unbind(playerLogin);
+        }
+    }
+
+    /**
+     * Forgets the instance chosen for the deleted player by id and login. Must be called before the player
+     * is removed from the login index.
+     */
+    private void unbindDeletedPlayer(final Integer playerId) {
+        loginIndex.getIndexedPlayerLogin(playerId).ifPresent(BACKENDS::unbind);
+        BACKENDS.unbind(playerId);
+    }
+
+    private Optional<Player> findPlayerById(final Integer playerId) {
+        try {
+            return Optional.of(getPlayerById(playerId).then().extract().as(Player.class));
+        } catch (Exception e) {
+            log.warn("Player with id {} could not be obtained: {}", playerId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Puts id and login of a Player from successful response to the login index. Values sent in the request
+     * are used if the response body doesn't contain them.
+     */
+    private void indexPlayerFromResponse(final Response response,
+                                         final Integer requestedId,
+                                         final String requestedLogin) {
+        indexPlayer(response.getStatusCode(), () -> response.as(Player.class), requestedId, requestedLogin);
+    }
+
+    private void indexPlayerFromResponse(final PlayerHttpResponse response,
+                                         final Integer requestedId,
+                                         final String requestedLogin) {
+        indexPlayer(response.getStatusCode(), () -> response.as(Player.class), requestedId, requestedLogin);
+    }
+
+    private void indexPlayer(final int statusCode,
+                             final Supplier<Player> responsePlayer,
+                             final Integer requestedId,
+                             final String requestedLogin) {
+        if (statusCode < 200 || statusCode >= 300) {
+            return;
+        }
+        try {
+            final Player player = responsePlayer.get();
+            loginIndex.put(Optional.ofNullable(player.getId()).orElse(requestedId),
+                    Optional.ofNullable(player.getLogin()).orElse(requestedLogin));
+        } catch (Exception e) {
+            log.warn("Login index was not updated from response with status {}: {}", statusCode, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the outcome of a create, update or delete request to the shadow model. The player doesn't change
+     * on 4xx status codes, and its state becomes unknown if the request failed or the server was overloaded.
+     *
+     * @param requestedId    id sent in the request, {@code null} for creation
+     * @param statusCode     status code of the response or {@code null} if no response was obtained
+     * @param responsePlayer body of the response, not used for deletion
+     * @param requestPlayer  player sent in the request, not used for deletion
+     */
+    private void completeShadowMutation(final Integer requestedId,
+                                        final Integer statusCode,
+                                        final Supplier<Player> responsePlayer,
+                                        final Player requestPlayer,
+                                        final boolean deletion) {
+        if (!shadowModel.isEnabled()) {
+            return;
+        }
+        if (statusCode == null || ServerPermits.isOverloadStatus(statusCode)) {
+            shadowModel.abandonMutation(requestedId);
+        } else if (statusCode < 200 || statusCode >= 300) {
+            shadowModel.completeMutation(requestedId, null, false);
+        } else if (deletion) {
+            shadowModel.completeMutation(requestedId, null, true);
+        } else {
+            Player response = null;
+            try {
+                response = responsePlayer.get();
+            } catch (Exception e) {
+                log.warn("Shadow model is updated from the request only: {}", e.getMessage());
+            }
+            final Player responseBody = response;
+            final Integer playerId = Optional.ofNullable(response).map(Player::getId).orElse(requestedId);
+            shadowModel.completeMutation(playerId,
+                    previous -> PlayerShadowModel.merge(previous, responseBody, requestPlayer), false);
+        }
+    }
+
+    private void verifyShadowRead(final Integer playerId,
+                                  final long shadowVersion,
+                                  final int statusCode,
+                                  final Supplier<Player> responsePlayer) {
+        if (shadowVersion < 0) {
+            return;
+        }
+        Player actual = null;
+        if (statusCode == 200) {
+            try {
+                actual = responsePlayer.get();
+            } catch (Exception e) {
+                log.warn("Player with id {} is not compared with the shadow model: {}", playerId, e.getMessage());
+            }
+        }
+        shadowModel.afterRead(playerId, shadowVersion, statusCode, actual);
+    }
+
+    private boolean isSuccessful(final Response response) {
+        final int statusCode = response.getStatusCode();
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Reads streamed body of all players list
+     */
+    @FunctionalInterface
+    private interface AllPlayersReader<T> {
+        T read(InputStream body) throws IOException;
+    }
 }
@@ -0,0 +1,52 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.soloviova.liudmyla.mappers.PlayerMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response of an asynchronous request executed by {@link PlayerControllerHttpClient}.
+ * The body is fully read, so the response can be inspected from any thread.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+public class PlayerHttpResponse {
+    private final int statusCode;
+    private final String contentType;
+    private final byte[] body;
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public String asString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps the response body to the given entity type
+     *
+     * @param playerObjectClass type of the entity
+     * @return mapped entity
+     * @throws UncheckedIOException if the body cannot be mapped to the given type
+     */
+    public <T> T as(final Class<T> playerObjectClass) {
+        try {
+            return PlayerMapper.getInstance().mapJsonBytesToPlayerObject(body, playerObjectClass);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Response body with status %s cannot be mapped to %s",
+                    statusCode, playerObjectClass.getSimpleName()), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s", statusCode, asString());
+    }
+}
@@ -0,0 +1,137 @@
+package org.soloviova.liudmyla.httpclients;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared transport configuration for all requests to the Player controller.
+ * <p>
+ * RestAssured requests reuse one HTTP client backed by a bounded keep-alive connection pool,
+ * so parallel tests don't open and tear down a TCP connection for every request.
+ * Idle connections are closed in background. Asynchronous requests use one JDK {@link HttpClient}
+ * with the same connect timeout.
+ * <p>
+ * Pool limits and timeouts are set by the following properties:
+ * players.http.pool.max.per.host, players.http.pool.max.total, players.http.pool.idle.seconds,
+ * players.http.pool.lease.timeout.millis (wait for a free pooled connection),
+ * players.http.connect.timeout.millis, players.http.socket.timeout.millis (wait for the next bytes of a response)
+ * and players.http.request.timeout.millis (whole asynchronous request). RestAssured requests have no overall
+ * deadline: they are bounded by the lease, connect and socket timeouts.
+ *
+ * @author Liudmyla Soloviova
+ */
+@SuppressWarnings("deprecation")
+public final class PlayerHttpTransport {
+    private static final int MAX_CONNECTIONS_PER_HOST = Integer.getInteger("players.http.pool.max.per.host", 64);
+    private static final int MAX_CONNECTIONS_TOTAL = Integer.getInteger("players.http.pool.max.total", 128);
+    private static final int IDLE_CONNECTION_SECONDS = Integer.getInteger("players.http.pool.idle.seconds", 30);
+    private static final int POOL_LEASE_TIMEOUT_MILLIS =
+            Integer.getInteger("players.http.pool.lease.timeout.millis", 30_000);
+    private static final int CONNECT_TIMEOUT_MILLIS = Integer.getInteger("players.http.connect.timeout.millis", 5_000);
+    private static final int SOCKET_TIMEOUT_MILLIS = Integer.getInteger("players.http.socket.timeout.millis", 30_000);
+    private static final int REQUEST_TIMEOUT_MILLIS = Integer.getInteger("players.http.request.timeout.millis", 60_000);
+
+    private static final PoolingClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+    private static final DefaultHttpClient HTTP_CLIENT = new DefaultHttpClient(CONNECTION_MANAGER);
+    private static final RestAssuredConfig REST_ASSURED_CONFIG = RestAssuredConfig.config()
+            .httpClient(HttpClientConfig.httpClientConfig()
+                    .httpClientFactory(() -> HTTP_CLIENT)
+                    .reuseHttpClientInstance()
+                    .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MILLIS)
+                    .setParam(CoreConnectionPNames.SO_TIMEOUT, SOCKET_TIMEOUT_MILLIS)
+                    .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) POOL_LEASE_TIMEOUT_MILLIS));
+    private static final HttpClient ASYNC_HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MILLIS))
+            .build();
+
+    static {
+        final ScheduledExecutorService idleConnectionsEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "idle-connections-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleConnectionsEvictor.scheduleWithFixedDelay(() -> {
+            CONNECTION_MANAGER.closeExpiredConnections();
+            CONNECTION_MANAGER.closeIdleConnections(IDLE_CONNECTION_SECONDS, TimeUnit.SECONDS);
+        }, IDLE_CONNECTION_SECONDS, IDLE_CONNECTION_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private PlayerHttpTransport() {
+    }
+
+    /**
+     * Replacement of {@link RestAssured#given()} which applies the shared transport configuration.
+     * Response body is read as soon as the response is received, so the connection goes back to the pool
+     * even if the caller checks only the status code. If the {@link Cassette} is replaying, the request
+     * is not sent and no filter added after this method is applied.
+     *
+     * @return {@link RequestSpecification} for a new request
+     */
+    public static RequestSpecification given() {
+        final RequestSpecification requestSpecification = RestAssured.given()
+                .config(REST_ASSURED_CONFIG)
+                .filter((requestSpec, responseSpec, context) -> {
+                    final Response response = context.next(requestSpec, responseSpec);
+                    response.asByteArray();
+                    return response;
+                });
+        final Cassette cassette = Cassette.getInstance();
+        return cassette.isRecording() || cassette.isReplaying()
+                ? requestSpecification.filter(new CassetteFilter(cassette))
+                : requestSpecification;
+    }
+
+    public static HttpClient asyncHttpClient() {
+        return ASYNC_HTTP_CLIENT;
+    }
+
+    public static Duration requestTimeout() {
+        return Duration.ofMillis(REQUEST_TIMEOUT_MILLIS);
+    }
+
+    public static PoolStatistics getPoolStatistics() {
+        final PoolStats totalStats = CONNECTION_MANAGER.getTotalStats();
+        return new PoolStatistics(totalStats.getLeased(), totalStats.getAvailable(), totalStats.getPending(),
+                totalStats.getMax());
+    }
+
+    private static PoolingClientConnectionManager createConnectionManager() {
+        final PoolingClientConnectionManager connectionManager =
+                new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+        return connectionManager;
+    }
+
+    /**
+     * Snapshot of the connection pool state
+     */
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class PoolStatistics {
+        private final int leased;
+        private final int idle;
+        private final int pending;
+        private final int max;
+    }
+}
@@ -0,0 +1,166 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.entities.PlayerItem;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * This class keeps a concurrent login -> id index of players. {@link PlayerItem} returned by /get/all has no login,
+ * so without the index every lookup by login needs one request per registered player.
+ * <p>
+ * The index is filled by {@link PlayerControllerHttpClient} from its own create, update, delete and get responses.
+ * A full rebuild is performed only when a login is not found. It requests only those players which are not indexed
+ * yet, with bounded parallelism.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerLoginIndex {
+    private static final int REBUILD_PARALLELISM = Integer.getInteger("players.index.rebuild.parallelism", 8);
+
+    private final ConcurrentMap<String, Integer> idsByLogin = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> loginsById = new ConcurrentHashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicLong rebuildGeneration = new AtomicLong();
+    private final Supplier<Optional<List<PlayerItem>>> allPlayersSupplier;
+    private final Function<Integer, Optional<Player>> playerByIdFunction;
+
+    /**
+     * @param allPlayersSupplier requests all players list, returns empty {@link Optional} if the request failed
+     * @param playerByIdFunction requests a Player by id
+     */
+    PlayerLoginIndex(final Supplier<Optional<List<PlayerItem>>> allPlayersSupplier,
+                     final Function<Integer, Optional<Player>> playerByIdFunction) {
+        this.allPlayersSupplier = allPlayersSupplier;
+        this.playerByIdFunction = playerByIdFunction;
+    }
+
+    /**
+     * Finds id of a Player with the given login. The index is rebuilt if the login is not indexed yet.
+     *
+     * @param playerLogin login of the Player
+     * @return id of the Player or empty {@link Optional} if there is no such player in the app
+     */
+    public Optional<Integer> findPlayerId(final String playerLogin) {
+        final Optional<Integer> indexedId = getIndexedPlayerId(playerLogin);
+        if (indexedId.isPresent()) {
+            return indexedId;
+        }
+
+        rebuild(rebuildGeneration.get());
+        return getIndexedPlayerId(playerLogin);
+    }
+
+    /**
+     * Returns id of a Player with the given login only if it is already indexed, without any HTTP requests
+     *
+     * @param playerLogin login of the Player
+     * @return indexed id of the Player
+     */
+    public Optional<Integer> getIndexedPlayerId(final String playerLogin) {
+        return playerLogin == null ? Optional.empty() : Optional.ofNullable(idsByLogin.get(playerLogin));
+    }
+
+    /**
+     * Returns login of a Player with the given id only if it is already indexed, without any HTTP requests
+     *
+     * @param playerId id of the Player
+     * @return indexed login of the Player
+     */
+    public Optional<String> getIndexedPlayerLogin(final Integer playerId) {
+        return playerId == null ? Optional.empty() : Optional.ofNullable(loginsById.get(playerId));
+    }
+
+    void put(final Integer playerId, final String playerLogin) {
+        if (playerId == null || playerLogin == null) {
+            return;
+        }
+        final String previousLogin = loginsById.put(playerId, playerLogin);
+        if (previousLogin != null && !previousLogin.equals(playerLogin)) {
+            idsByLogin.remove(previousLogin, playerId);
+        }
+        idsByLogin.put(playerLogin, playerId);
+    }
+
+    void remove(final Integer playerId) {
+        if (playerId == null) {
+            return;
+        }
+        final String login = loginsById.remove(playerId);
+        if (login != null) {
+            idsByLogin.remove(login, playerId);
+        }
+    }
+
+    /**
+     * Synchronizes the index with /get/all list. Players which disappeared from the list are removed,
+     * players which are not indexed yet are requested one by one in parallel.
+     * If another thread has already rebuilt the index while this one was waiting, nothing is done.
+     * If the list cannot be obtained, the index is left as it is.
+     *
+     * @param observedGeneration rebuild generation observed by the caller before the index miss
+     */
+    private void rebuild(final long observedGeneration) {
+        rebuildLock.lock();
+        try {
+            if (rebuildGeneration.get() != observedGeneration) {
+                return;
+            }
+
+            final Optional<List<PlayerItem>> listedPlayers = allPlayersSupplier.get();
+            if (listedPlayers.isEmpty()) {
+                log.warn("Login index is not rebuilt: the list of all players was not obtained");
+                return;
+            }
+            final Set<Integer> listedIds = listedPlayers.get()
+                    .stream()
+                    .map(PlayerItem::getId)
+                    .collect(Collectors.toSet());
+            loginsById.keySet()
+                    .stream()
+                    .filter(playerId -> !listedIds.contains(playerId))
+                    .collect(Collectors.toList())
+                    .forEach(this::remove);
+
+            final List<Integer> notIndexedIds = listedIds.stream()
+                    .filter(playerId -> !loginsById.containsKey(playerId))
+                    .collect(Collectors.toList());
+            log.info("Rebuilding login index: {} players are listed, {} of them are not indexed yet",
+                    listedIds.size(), notIndexedIds.size());
+
+            if (!notIndexedIds.isEmpty()) {
+                fetchLogins(notIndexedIds);
+            }
+            rebuildGeneration.incrementAndGet();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void fetchLogins(final List<Integer> playerIds) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(REBUILD_PARALLELISM, playerIds.size()));
+        try {
+            final CompletableFuture<?>[] lookups = playerIds.stream()
+                    .map(playerId -> CompletableFuture.runAsync(() -> playerByIdFunction.apply(playerId)
+                            .ifPresent(player -> put(playerId, player.getLogin())), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(lookups).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory shadow of the players which {@link PlayerControllerHttpClient} has created, updated, deleted or read.
+ * The model is updated from responses of successful mutations, so tests can check the state of a player
+ * without requesting it. Only a sample of such checks, players.shadow.verify.rate (0.1 by default), is verified
+ * by a request, and every difference between the model and the response is kept as a {@link ConsistencyViolation}.
+ * Responses of get requests sent by tests are compared with the model as well.
+ * <p>
+ * A read is compared only if no mutation of the player was in flight while it was executed, so concurrent tests
+ * don't produce false violations. Sampling doesn't depend on thread scheduling: the n-th check of a player
+ * is verified or not in every run.
+ * <p>
+ * The model is enabled by players.shadow.enabled=true property. When it is disabled, every check sends a request.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerShadowModel {
+    private static final long SAMPLING_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int SAMPLING_SCALE = 1_000_000;
+
+    private final boolean enabled;
+    private final int verifiedPerMillion;
+    private final Map<Integer, ShadowPlayer> players = new ConcurrentHashMap<>();
+    private final Map<Object, AtomicLong> checksByKey = new ConcurrentHashMap<>();
+    private final Queue<ConsistencyViolation> violations = new ConcurrentLinkedQueue<>();
+    private final LongAdder comparedReads = new LongAdder();
+    private final LongAdder inconclusiveReads = new LongAdder();
+    private final LongAdder skippedVerifications = new LongAdder();
+
+    public PlayerShadowModel(final boolean enabled, final double verifyRate) {
+        if (verifyRate < 0 || verifyRate > 1) {
+            throw new IllegalArgumentException("Verification rate must be from 0 to 1, but was " + verifyRate);
+        }
+        this.enabled = enabled;
+        this.verifiedPerMillion = (int) Math.round(verifyRate * SAMPLING_SCALE);
+    }
+
+    /**
+     * @return model configured by players.shadow.enabled and players.shadow.verify.rate properties
+     */
+    static PlayerShadowModel fromConfiguration() {
+        return new PlayerShadowModel(Boolean.getBoolean("players.shadow.enabled"),
+                Double.parseDouble(System.getProperty("players.shadow.verify.rate", "0.1")));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param playerId id of the player
+     * @return expected state of the player or empty {@link Optional} if the player is unknown to the model,
+     * deleted or being changed right now
+     */
+    public Optional<Player> getExpectedPlayer(final Integer playerId) {
+        final ShadowPlayer shadowPlayer = playerId == null ? null : players.get(playerId);
+        return shadowPlayer == null || !shadowPlayer.isSettled() || shadowPlayer.deleted
+                ? Optional.empty()
+                : Optional.of(copyOf(shadowPlayer.expected));
+    }
+
+    /**
+     * Decides whether the next check of the given key is verified by a request. Always {@code true} if the model
+     * is disabled.
+     *
+     * @param key player id, login or another key of the checked state
+     */
+    public boolean shouldVerify(final Object key) {
+        if (!enabled || verifiedPerMillion >= SAMPLING_SCALE) {
+            return true;
+        }
+        final long check = checksByKey.computeIfAbsent(key, ignored -> new AtomicLong()).getAndIncrement();
+        final long mixed = (Objects.hashCode(key) * SAMPLING_GAMMA + check) * SAMPLING_GAMMA;
+        final boolean verify = Math.floorMod(mixed >>> 16, SAMPLING_SCALE) < verifiedPerMillion;
+        if (!verify) {
+            skippedVerifications.increment();
+        }
+        return verify;
+    }
+
+    public List<ConsistencyViolation> getViolations() {
+        return List.copyOf(violations);
+    }
+
+    public ShadowModelStatistics getStatistics() {
+        return new ShadowModelStatistics(players.size(), comparedReads.sum(), inconclusiveReads.sum(),
+                skippedVerifications.sum(), violations.size());
+    }
+
+    /**
+     * Marks the player as being changed, so reads executed meanwhile are not compared
+     */
+    void beginMutation(final Integer playerId) {
+        if (enabled && playerId != null) {
+            players.merge(playerId, ShadowPlayer.UNKNOWN.withPendingMutation(1),
+                    (current, ignored) -> current.withPendingMutation(1));
+        }
+    }
+
+    /**
+     * @param playerId id of the player or {@code null} if the request failed before the id was known
+     * @param newState state of the player in the successful response merged with the previous state, or
+     *                 {@code null} if the mutation failed and the player didn't change
+     * @param deleted  {@code true} if the player was deleted
+     */
+    void completeMutation(final Integer playerId,
+                          final Function<Player, Player> newState,
+                          final boolean deleted) {
+        if (!enabled || playerId == null) {
+            return;
+        }
+        players.compute(playerId, (id, current) -> {
+            final ShadowPlayer shadowPlayer = current == null ? ShadowPlayer.UNKNOWN : current.withPendingMutation(-1);
+            if (deleted) {
+                return shadowPlayer.deleted();
+            }
+            return newState == null ? shadowPlayer : shadowPlayer.changed(newState.apply(shadowPlayer.expected));
+        });
+    }
+
+    /**
+     * Forgets the state of the player after a mutation with unknown outcome, e.g. a timeout or 5xx status code.
+     * The next successful read adds the player to the model again.
+     */
+    void abandonMutation(final Integer playerId) {
+        if (enabled && playerId != null) {
+            players.computeIfPresent(playerId, (id, current) -> current.withPendingMutation(-1).forgotten());
+        }
+    }
+
+    /**
+     * Remembers the model version of the player before a read request
+     *
+     * @return version of the player or -1 if the read can't be compared
+     */
+    long beforeRead(final Integer playerId) {
+        if (!enabled || playerId == null) {
+            return -1;
+        }
+        final ShadowPlayer shadowPlayer = players.get(playerId);
+        return shadowPlayer == null ? 0 : shadowPlayer.isSettled() ? shadowPlayer.version : -1;
+    }
+
+    /**
+     * Compares a read response with the model if the player didn't change since {@link #beforeRead(Integer)}.
+     * A successful read of a player unknown to the model adds it to the model.
+     *
+     * @param version    version returned by {@link #beforeRead(Integer)}
+     * @param statusCode status code of the response
+     * @param actual     player from the response, {@code null} if the request failed
+     */
+    void afterRead(final Integer playerId, final long version, final int statusCode, final Player actual) {
+        if (version < 0) {
+            return;
+        }
+        final ShadowPlayer shadowPlayer = players.get(playerId);
+        final long currentVersion = shadowPlayer == null ? 0 : shadowPlayer.version;
+        if (currentVersion != version || (shadowPlayer != null && !shadowPlayer.isSettled())) {
+            inconclusiveReads.increment();
+            return;
+        }
+        if (shadowPlayer == null || shadowPlayer.isUnknown()) {
+            if (statusCode == 200 && actual != null) {
+                players.putIfAbsent(playerId, ShadowPlayer.UNKNOWN.changed(copyOf(actual)));
+            }
+            return;
+        }
+        if (shadowPlayer.deleted) {
+            comparedReads.increment();
+            if (statusCode == 200) {
+                reportViolation(new ConsistencyViolation(playerId, "deleted", "not found", actual));
+            }
+            return;
+        }
+        if (statusCode == 404) {
+            reportViolation(new ConsistencyViolation(playerId, "status", 200, statusCode));
+            return;
+        }
+        if (statusCode != 200 || actual == null) {
+            inconclusiveReads.increment();
+            return;
+        }
+        comparedReads.increment();
+        final Player expected = shadowPlayer.expected;
+        final boolean consistent = compareField(playerId, "login", expected.getLogin(), actual.getLogin())
+                & compareField(playerId, "screenName", expected.getScreenName(), actual.getScreenName())
+                & compareField(playerId, "gender", expected.getGender(), actual.getGender())
+                & compareField(playerId, "age", expected.getAge(), actual.getAge())
+                & compareField(playerId, "role", expected.getRole(), actual.getRole())
+                & compareField(playerId, "password", expected.getPassword(), actual.getPassword());
+        if (consistent) {
+            // the model takes the shape of get responses, so expected players are equal to the requested ones
+            players.computeIfPresent(playerId, (id, current) -> current.version == version && current.isSettled()
+                    ? current.observed(copyOf(actual))
+                    : current);
+        }
+    }
+
+    /**
+     * Fields which are absent on either side are not compared: responses don't always contain all of them
+     */
+    private boolean compareField(final Integer playerId,
+                                 final String field,
+                                 final Object expected,
+                                 final Object actual) {
+        if (expected != null && actual != null && !expected.equals(actual)) {
+            reportViolation(new ConsistencyViolation(playerId, field, expected, actual));
+            return false;
+        }
+        return true;
+    }
+
+    private void reportViolation(final ConsistencyViolation violation) {
+        log.error("Consistency violation: {}", violation);
+        violations.add(violation);
+    }
+
+    /**
+     * @param previous state of the player known before the mutation, may be {@code null}
+     * @param response player from the response of the mutation
+     * @param request  player sent in the request, its fields are used if the response doesn't contain them
+     * @return new state of the player
+     */
+    static Player merge(final Player previous, final Player response, final Player request) {
+        final Player merged = previous == null ? new Player() : copyOf(previous);
+        for (final Player source : new Player[]{request, response}) {
+            if (source == null) {
+                continue;
+            }
+            Optional.ofNullable(source.getId()).ifPresent(merged::setId);
+            Optional.ofNullable(source.getLogin()).ifPresent(merged::setLogin);
+            Optional.ofNullable(source.getPassword()).ifPresent(merged::setPassword);
+            Optional.ofNullable(source.getScreenName()).ifPresent(merged::setScreenName);
+            Optional.ofNullable(source.getGender()).ifPresent(merged::setGender);
+            Optional.ofNullable(source.getAge()).ifPresent(merged::setAge);
+            Optional.ofNullable(source.getRole()).ifPresent(merged::setRole);
+        }
+        return merged;
+    }
+
+    private static Player copyOf(final Player player) {
+        return Player.builder()
+                .id(player.getId())
+                .login(player.getLogin())
+                .password(player.getPassword())
+                .screenName(player.getScreenName())
+                .gender(player.getGender())
+                .age(player.getAge())
+                .role(player.getRole())
+                .build();
+    }
+
+    /**
+     * Immutable state of one player in the model
+     */
+    private static class ShadowPlayer {
+        static final ShadowPlayer UNKNOWN = new ShadowPlayer(null, false, 0, 0);
+
+        private final Player expected;
+        private final boolean deleted;
+        private final long version;
+        private final int pendingMutations;
+
+        ShadowPlayer(final Player expected, final boolean deleted, final long version, final int pendingMutations) {
+            this.expected = expected;
+            this.deleted = deleted;
+            this.version = version;
+            this.pendingMutations = pendingMutations;
+        }
+
+        boolean isSettled() {
+            return pendingMutations == 0;
+        }
+
+        boolean isUnknown() {
+            return expected == null && !deleted;
+        }
+
+        ShadowPlayer withPendingMutation(final int delta) {
+            return new ShadowPlayer(expected, deleted, version, Math.max(0, pendingMutations + delta));
+        }
+
+        ShadowPlayer changed(final Player newState) {
+            return new ShadowPlayer(newState, false, version + 1, pendingMutations);
+        }
+
+        ShadowPlayer observed(final Player readState) {
+            return new ShadowPlayer(readState, false, version, pendingMutations);
+        }
+
+        ShadowPlayer forgotten() {
+            return new ShadowPlayer(null, false, version + 1, pendingMutations);
+        }
+
+        ShadowPlayer deleted() {
+            return new ShadowPlayer(expected, true, version + 1, pendingMutations);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Usage of {@link PlayerShadowModel}: the number of players in the model, reads compared with the model,
+ * reads which couldn't be compared because the player was being changed, checks served by the model
+ * without a request and found violations
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ShadowModelStatistics {
+    private final int trackedPlayers;
+    private final long comparedReads;
+    private final long inconclusiveReads;
+    private final long skippedVerifications;
+    private final int violations;
+}
@@ -0,0 +1,20 @@
+package org.soloviova.liudmyla.httpclients;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of all players list cache usage: the number of reads served from the snapshot,
+ * the number of requests of the list and the number of mutations which invalidated the snapshot
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class SnapshotCacheStatistics {
+    private final long hits;
+    private final long fetches;
+    private final long mutations;
+}
@@ -0,0 +1,89 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Thread-safe recorder of a concurrent history: every operation is recorded when it is invoked and again
+ * when its response is obtained. Times are taken from {@link System#nanoTime()}, so they can be compared
+ * between threads of one JVM.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class HistoryRecorder {
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Queue<Operation> operations = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Records invocation of an operation right before its request is sent
+     *
+     * @return the operation to complete when the response is obtained
+     */
+    public Operation invoke(final int process,
+                            final String partition,
+                            final OperationType type,
+                            final Integer playerId,
+                            final Player request) {
+        final Operation operation = new Operation(nextId.getAndIncrement(), process, partition, type, playerId,
+                request, System.nanoTime());
+        operations.add(operation);
+        return operation;
+    }
+
+    /**
+     * Records the response of an operation
+     *
+     * @param response player from the response body or {@code null} if the body is empty or is not a player
+     */
+    public void complete(final Operation operation, final int statusCode, final Player response) {
+        operation.complete(System.nanoTime(), statusCode, response);
+    }
+
+    /**
+     * Leaves the operation incomplete: no response was obtained, so it may or may not have taken effect
+     */
+    public void fail(final Operation operation, final Throwable error) {
+        log.warn("Operation {} {} has no response: {}", operation.getId(), operation.getType(), error.getMessage());
+    }
+
+    /**
+     * @return recorded operations in the order of invocation
+     */
+    public List<Operation> getHistory() {
+        return operations.stream()
+                .sorted(Comparator.comparingLong(Operation::getInvokeNanos).thenComparingInt(Operation::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return one line per operation: id, process, partition, type, player id, invocation and completion
+     * in microseconds since the start of the recording, status code, request and response
+     */
+    public String historyText() {
+        return getHistory().stream()
+                .map(this::describe)
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    public String describe(final Operation operation) {
+        return String.format("%d p%d %s %s id=%s [%d, %s] status=%s request=%s response=%s",
+                operation.getId(), operation.getProcess(), operation.getPartition(), operation.getType(),
+                operation.getPlayerId(), micros(operation.getInvokeNanos()),
+                operation.isCompleted() ? String.valueOf(micros(operation.getCompleteNanos())) : "never",
+                operation.getStatusCode(), operation.getRequest(), operation.getResponse());
+    }
+
+    private long micros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos - startNanos);
+    }
+}
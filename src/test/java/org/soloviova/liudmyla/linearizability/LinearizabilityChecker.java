@@ -0,0 +1,206 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Checks whether a concurrent history is linearizable with respect to a {@link SequentialModel}: whether every
+ * operation can be placed at one point between its invocation and completion so that the sequence of operations
+ * is legal in the model.
+ * <p>
+ * The search follows Wing and Gong's algorithm with Lowe's memoization: invocations and completions are kept
+ * in one list ordered by time, an operation is linearized by removing its invocation and completion from the list,
+ * and the search backtracks when a completion is reached before its operation is linearized. A configuration,
+ * the set of linearized operations and the state of the model, is never explored twice, which keeps the search
+ * polynomial for histories with bounded concurrency.
+ * <p>
+ * Partitions of the history are checked independently and in parallel, so long histories of many independent
+ * partitions are checked in seconds. The search of a partition is stopped after players.linearizability.max.states
+ * explored configurations (1000000 by default) with {@link LinearizabilityResult.Verdict#UNKNOWN} verdict.
+ *
+ * @param <S> state of the model
+ * @author Liudmyla Soloviova
+ */
+public class LinearizabilityChecker<S> {
+    private final SequentialModel<S> model;
+    private final long maxStates;
+
+    public LinearizabilityChecker(final SequentialModel<S> model) {
+        this(model, Long.getLong("players.linearizability.max.states", 1_000_000L));
+    }
+
+    public LinearizabilityChecker(final SequentialModel<S> model, final long maxStates) {
+        this.model = model;
+        this.maxStates = maxStates;
+    }
+
+    public LinearizabilityReport check(final List<Operation> history) {
+        final long start = System.nanoTime();
+        final Map<String, List<Operation>> partitions = history.stream()
+                .collect(Collectors.groupingBy(Operation::getPartition, TreeMap::new, Collectors.toList()));
+        final List<LinearizabilityResult> results = partitions.entrySet()
+                .parallelStream()
+                .map(partition -> checkPartition(partition.getKey(), partition.getValue()))
+                .collect(Collectors.toList());
+        return new LinearizabilityReport(results, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    LinearizabilityResult checkPartition(final String partition, final List<Operation> operations) {
+        final Entry head = linkEntries(operations);
+        final Set<Configuration<S>> explored = new HashSet<>();
+        final Deque<Frame<S>> linearized = new ArrayDeque<>();
+        BitSet linearizedOperations = new BitSet(operations.size());
+        S state = model.initialState();
+        Entry entry = head.next;
+        int alternative = 0;
+
+        while (head.next != null) {
+            if (explored.size() > maxStates) {
+                return new LinearizabilityResult(partition, LinearizabilityResult.Verdict.UNKNOWN, operations.size(),
+                        explored.size(), null);
+            }
+            if (entry.isInvocation()) {
+                final List<S> nextStates = model.step(state, entry.operation);
+                boolean lifted = false;
+                for (int i = alternative; i < nextStates.size() && !lifted; i++) {
+                    final BitSet nextOperations = (BitSet) linearizedOperations.clone();
+                    nextOperations.set(entry.index);
+                    if (explored.add(new Configuration<>(nextOperations, nextStates.get(i)))) {
+                        linearized.push(new Frame<>(entry, state, i));
+                        state = nextStates.get(i);
+                        linearizedOperations = nextOperations;
+                        entry.lift();
+                        lifted = true;
+                    }
+                }
+                entry = lifted ? head.next : entry.next;
+                alternative = 0;
+            } else {
+                if (linearized.isEmpty()) {
+                    return new LinearizabilityResult(partition, LinearizabilityResult.Verdict.NOT_LINEARIZABLE,
+                            operations.size(), explored.size(), entry.operation);
+                }
+                final Frame<S> frame = linearized.pop();
+                state = frame.previousState;
+                linearizedOperations = (BitSet) linearizedOperations.clone();
+                linearizedOperations.clear(frame.invocation.index);
+                frame.invocation.unlift();
+                entry = frame.invocation;
+                alternative = frame.alternative + 1;
+            }
+        }
+        return new LinearizabilityResult(partition, LinearizabilityResult.Verdict.LINEARIZABLE, operations.size(),
+                explored.size(), null);
+    }
+
+    /**
+     * @return head of the list of invocations and completions ordered by time. An invocation goes before
+     * a completion at the same time, so such operations are considered concurrent.
+     */
+    private Entry linkEntries(final List<Operation> operations) {
+        final List<Entry> entries = new ArrayList<>(operations.size() * 2);
+        for (int i = 0; i < operations.size(); i++) {
+            final Operation operation = operations.get(i);
+            final Entry invocation = new Entry(operation, i, operation.getInvokeNanos(), null);
+            entries.add(invocation);
+            entries.add(new Entry(operation, i, operation.getCompleteNanos(), invocation));
+        }
+        entries.sort(Comparator.comparingLong((Entry entry) -> entry.time)
+                .thenComparing(entry -> !entry.isInvocation()));
+        final Entry head = new Entry(null, -1, Long.MIN_VALUE, null);
+        Entry previous = head;
+        for (final Entry entry : entries) {
+            previous.next = entry;
+            entry.previous = previous;
+            previous = entry;
+        }
+        return head;
+    }
+
+    /**
+     * Invocation or completion of an operation in a doubly linked list
+     */
+    private static final class Entry {
+        private final Operation operation;
+        private final int index;
+        private final long time;
+        private Entry completion;
+        private Entry previous;
+        private Entry next;
+
+        Entry(final Operation operation, final int index, final long time, final Entry invocation) {
+            this.operation = operation;
+            this.index = index;
+            this.time = time;
+            if (invocation != null) {
+                invocation.completion = this;
+            }
+        }
+
+        boolean isInvocation() {
+            return completion != null;
+        }
+
+        /**
+         * Removes the invocation and its completion from the list
+         */
+        void lift() {
+            previous.next = next;
+            next.previous = previous;
+            completion.previous.next = completion.next;
+            if (completion.next != null) {
+                completion.next.previous = completion.previous;
+            }
+        }
+
+        /**
+         * Puts the invocation and its completion back, in the reverse order of {@link #lift()}
+         */
+        void unlift() {
+            completion.previous.next = completion;
+            if (completion.next != null) {
+                completion.next.previous = completion;
+            }
+            previous.next = this;
+            next.previous = this;
+        }
+    }
+
+    /**
+     * Linearized operation and the state of the model before it
+     */
+    private static final class Frame<S> {
+        private final Entry invocation;
+        private final S previousState;
+        private final int alternative;
+
+        Frame(final Entry invocation, final S previousState, final int alternative) {
+            this.invocation = invocation;
+            this.previousState = previousState;
+            this.alternative = alternative;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class Configuration<S> {
+        private final BitSet linearizedOperations;
+        private final S state;
+
+        Configuration(final BitSet linearizedOperations, final S state) {
+            this.linearizedOperations = linearizedOperations;
+            this.state = state;
+        }
+    }
+}
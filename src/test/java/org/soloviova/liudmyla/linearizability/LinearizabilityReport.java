@@ -0,0 +1,39 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Results of the linearizability check of all partitions of a history
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+public class LinearizabilityReport {
+    private final List<LinearizabilityResult> results;
+    private final long elapsedMillis;
+
+    public boolean isLinearizable() {
+        return getResultsWith(LinearizabilityResult.Verdict.NOT_LINEARIZABLE).isEmpty();
+    }
+
+    public List<LinearizabilityResult> getResultsWith(final LinearizabilityResult.Verdict verdict) {
+        return results.stream()
+                .filter(result -> result.getVerdict() == verdict)
+                .collect(Collectors.toList());
+    }
+
+    public String summary() {
+        return String.format("%d operations in %d partitions checked in %d ms, %d states explored: "
+                        + "%d linearizable, %d not linearizable, %d unknown",
+                results.stream().mapToInt(LinearizabilityResult::getOperations).sum(), results.size(), elapsedMillis,
+                results.stream().mapToLong(LinearizabilityResult::getExploredStates).sum(),
+                getResultsWith(LinearizabilityResult.Verdict.LINEARIZABLE).size(),
+                getResultsWith(LinearizabilityResult.Verdict.NOT_LINEARIZABLE).size(),
+                getResultsWith(LinearizabilityResult.Verdict.UNKNOWN).size());
+    }
+}
@@ -0,0 +1,35 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Result of the linearizability check of one partition of a history: the verdict, the number of operations,
+ * the number of explored states of the model and the operation which could not be linearized
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class LinearizabilityResult {
+    private final String partition;
+    private final Verdict verdict;
+    private final int operations;
+    private final long exploredStates;
+    /**
+     * Operation whose completion could not be reached by any linearization, {@code null} unless the partition
+     * is not linearizable
+     */
+    private final Operation failedOperation;
+
+    public enum Verdict {
+        LINEARIZABLE,
+        NOT_LINEARIZABLE,
+        /**
+         * The search was stopped after players.linearizability.max.states explored states
+         */
+        UNKNOWN
+    }
+}
@@ -0,0 +1,77 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.soloviova.liudmyla.entities.Player;
+
+/**
+ * One operation of a concurrent history: a request sent by a worker process, the time it was invoked and completed
+ * and the obtained response. An operation without response, e.g. failed by a timeout, stays incomplete:
+ * it may or may not have taken effect, and its completion time is {@link Long#MAX_VALUE}.
+ * <p>
+ * The operation is completed by the worker which invoked it, and it is read after all workers are finished.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@ToString
+public class Operation {
+    private final int id;
+    private final int process;
+    private final String partition;
+    private final OperationType type;
+    private final Integer playerId;
+    private final Player request;
+    private final long invokeNanos;
+    private long completeNanos = Long.MAX_VALUE;
+    private Integer statusCode;
+    private Player response;
+
+    /**
+     * @param id          number of the operation in the history
+     * @param process     worker which invoked the operation, a worker invokes one operation at a time
+     * @param partition   key of the players the operation may touch, operations of different partitions
+     *                    never affect each other
+     * @param type        type of the request
+     * @param playerId    id of the requested player, {@code null} for creation
+     * @param request     player sent in the request, {@code null} for get and delete
+     * @param invokeNanos {@link System#nanoTime()} before the request was sent
+     */
+    Operation(final int id,
+              final int process,
+              final String partition,
+              final OperationType type,
+              final Integer playerId,
+              final Player request,
+              final long invokeNanos) {
+        this.id = id;
+        this.process = process;
+        this.partition = partition;
+        this.type = type;
+        this.playerId = playerId;
+        this.request = request;
+        this.invokeNanos = invokeNanos;
+    }
+
+    void complete(final long completeNanos, final int statusCode, final Player response) {
+        this.completeNanos = completeNanos;
+        this.statusCode = statusCode;
+        this.response = response;
+    }
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+
+    /**
+     * @return {@code true} if the request may or may not have taken effect: it is incomplete, or the server
+     * was overloaded or failed
+     */
+    public boolean isOutcomeUnknown() {
+        return statusCode == null || statusCode == 429 || statusCode >= 500;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode != null && statusCode >= 200 && statusCode < 300;
+    }
+}
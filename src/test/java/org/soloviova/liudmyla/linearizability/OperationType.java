@@ -0,0 +1,10 @@
+package org.soloviova.liudmyla.linearizability;
+
+/**
+ * Requests of the Player controller recorded in a concurrent history
+ *
+ * @author Liudmyla Soloviova
+ */
+public enum OperationType {
+    CREATE, UPDATE, DELETE, GET
+}
@@ -0,0 +1,58 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.soloviova.liudmyla.entities.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable state of the players of one partition: players by id. Stored players are copies which are never
+ * modified, so states can be shared by the checker.
+ *
+ * @author Liudmyla Soloviova
+ */
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+@ToString
+public final class PlayerRegister {
+    static final PlayerRegister EMPTY = new PlayerRegister(Map.of());
+
+    private final Map<Integer, Player> players;
+
+    private PlayerRegister(final Map<Integer, Player> players) {
+        this.players = players;
+    }
+
+    Optional<Player> get(final Integer playerId) {
+        return Optional.ofNullable(playerId).map(players::get);
+    }
+
+    boolean contains(final Integer playerId) {
+        return playerId != null && players.containsKey(playerId);
+    }
+
+    /**
+     * @return {@code true} if a player other than the given one has the given login or screen name
+     */
+    boolean isTakenByAnother(final Integer playerId, final String login, final String screenName) {
+        return players.values().stream()
+                .filter(player -> !player.getId().equals(playerId))
+                .anyMatch(player -> login != null && login.equals(player.getLogin())
+                        || screenName != null && screenName.equals(player.getScreenName()));
+    }
+
+    PlayerRegister with(final Player player) {
+        final Map<Integer, Player> changed = new HashMap<>(players);
+        changed.put(Objects.requireNonNull(player.getId()), player);
+        return new PlayerRegister(Map.copyOf(changed));
+    }
+
+    PlayerRegister without(final Integer playerId) {
+        final Map<Integer, Player> changed = new HashMap<>(players);
+        changed.remove(playerId);
+        return new PlayerRegister(Map.copyOf(changed));
+    }
+}
@@ -0,0 +1,146 @@
+package org.soloviova.liudmyla.linearizability;
+
+import org.soloviova.liudmyla.entities.Player;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Sequential specification of the players register of the Player controller:
+ * <ul>
+ *     <li>successful creation adds a player with a new id, and its login and screen name are not taken;</li>
+ *     <li>successful update changes a present player, and its new login and screen name are not taken by others;</li>
+ *     <li>successful deletion removes a present player;</li>
+ *     <li>a read returns the present player, 404 or an empty body is returned only for an absent one;</li>
+ *     <li>update and deletion with 404 are possible only for an absent player;</li>
+ *     <li>other rejections (4xx) have no effect and are possible in any state, because they may be caused by
+ *     permissions or validation rules which the model doesn't reproduce;</li>
+ *     <li>an operation with unknown outcome (no response, 429 or 5xx) may or may not have taken effect.
+ *     A creation with unknown outcome is assumed to have no effect: its id is unknown, so it is never read.</li>
+ * </ul>
+ * Fields absent from a response are not compared. So the model finds lost or reordered updates, reads of stale or
+ * deleted players and duplicate logins or screen names accepted by concurrent requests.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class PlayerRegisterModel implements SequentialModel<PlayerRegister> {
+
+    @Override
+    public PlayerRegister initialState() {
+        return PlayerRegister.EMPTY;
+    }
+
+    @Override
+    public List<PlayerRegister> step(final PlayerRegister state, final Operation operation) {
+        if (operation.isOutcomeUnknown()) {
+            if (operation.getType() == OperationType.CREATE || operation.getType() == OperationType.GET) {
+                return List.of(state);
+            }
+            return applied(state, operation)
+                    .map(changed -> List.of(state, changed))
+                    .orElse(List.of(state));
+        }
+        final boolean absent = !state.contains(operation.getPlayerId());
+        if (operation.getType() == OperationType.GET) {
+            if (operation.getStatusCode() == 404 || operation.isSuccessful() && operation.getResponse() == null) {
+                return absent ? List.of(state) : List.of();
+            }
+            if (!operation.isSuccessful()) {
+                return List.of(state);
+            }
+            return state.get(operation.getPlayerId())
+                    .filter(player -> matches(operation.getResponse(), player))
+                    .map(player -> List.of(state))
+                    .orElse(List.of());
+        }
+        if (operation.getStatusCode() == 404 && operation.getType() != OperationType.CREATE) {
+            return absent ? List.of(state) : List.of();
+        }
+        if (!operation.isSuccessful()) {
+            return List.of(state);
+        }
+        return applied(state, operation)
+                .filter(changed -> operation.getResponse() == null
+                        || operation.getType() == OperationType.DELETE
+                        || changed.get(responseId(operation)).filter(player -> matches(operation.getResponse(), player))
+                        .isPresent())
+                .map(List::of)
+                .orElse(List.of());
+    }
+
+    /**
+     * @return state after the operation took effect or empty {@link Optional} if it can't take effect in the given
+     * state
+     */
+    private Optional<PlayerRegister> applied(final PlayerRegister state, final Operation operation) {
+        switch (operation.getType()) {
+            case CREATE:
+                final Integer createdId = responseId(operation);
+                final Player request = operation.getRequest();
+                if (createdId == null || state.contains(createdId)
+                        || state.isTakenByAnother(createdId, request.getLogin(), request.getScreenName())) {
+                    return Optional.empty();
+                }
+                return Optional.of(state.with(merge(Player.builder().id(createdId).build(), request)));
+            case UPDATE:
+                final Integer playerId = operation.getPlayerId();
+                final Player update = operation.getRequest();
+                return state.get(playerId)
+                        .filter(player -> !state.isTakenByAnother(playerId, update.getLogin(), update.getScreenName()))
+                        .map(player -> state.with(merge(player, update)));
+            case DELETE:
+                return state.contains(operation.getPlayerId())
+                        ? Optional.of(state.without(operation.getPlayerId()))
+                        : Optional.empty();
+            default:
+                return Optional.of(state);
+        }
+    }
+
+    private Integer responseId(final Operation operation) {
+        return Optional.ofNullable(operation.getResponse())
+                .map(Player::getId)
+                .orElse(operation.getPlayerId());
+    }
+
+    /**
+     * @return copy of the player with non-null fields of the update, the id is not changed
+     */
+    private static Player merge(final Player player, final Player update) {
+        return Player.builder()
+                .id(player.getId())
+                .login(valueOf(update, player, Player::getLogin))
+                .password(valueOf(update, player, Player::getPassword))
+                .screenName(valueOf(update, player, Player::getScreenName))
+                .gender(valueOf(update, player, Player::getGender))
+                .age(valueOf(update, player, Player::getAge))
+                .role(valueOf(update, player, Player::getRole))
+                .build();
+    }
+
+    private static <T> T valueOf(final Player update, final Player player, final Function<Player, T> field) {
+        return Optional.ofNullable(field.apply(update)).orElseGet(() -> field.apply(player));
+    }
+
+    /**
+     * @return {@code true} if every field present in the response equals the field of the expected player
+     */
+    private static boolean matches(final Player response, final Player expected) {
+        return fieldMatches(response, expected, Player::getId)
+                && fieldMatches(response, expected, Player::getLogin)
+                && fieldMatches(response, expected, Player::getPassword)
+                && fieldMatches(response, expected, Player::getScreenName)
+                && fieldMatches(response, expected, Player::getGender)
+                && fieldMatches(response, expected, Player::getAge)
+                && fieldMatches(response, expected, Player::getRole);
+    }
+
+    private static boolean fieldMatches(final Player response,
+                                        final Player expected,
+                                        final Function<Player, Object> field) {
+        final Object actual = field.apply(response);
+        return actual == null || Objects.equals(actual, field.apply(expected));
+    }
+}
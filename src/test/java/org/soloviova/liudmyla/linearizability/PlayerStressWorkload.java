@@ -0,0 +1,207 @@
+package org.soloviova.liudmyla.linearizability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.soloviova.liudmyla.httpclients.PlayerHttpResponse;
+import org.soloviova.liudmyla.testdata.PlayerGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress workload which records a concurrent history of create, update, delete and get requests.
+ * <p>
+ * players.linearizability.workers (16 by default) worker processes send players.linearizability.operations
+ * (4000 by default) requests in total, each worker one request at a time. Requests are sent through the
+ * asynchronous API of {@link PlayerControllerHttpClient}, which is not serialized by the player locks, so requests
+ * on the same player or with the same login really race on the server.
+ * <p>
+ * Players are spread over players.linearizability.partitions (64 by default) partitions. Players of a partition
+ * compete for {@value #LOGINS_PER_PARTITION} logins and {@value #SCREEN_NAMES_PER_PARTITION} screen names, and no
+ * other player of the app has them, so every partition can be checked independently. Choices of the workers are
+ * reproduced by players.data.seed, timing of the requests is not.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class PlayerStressWorkload {
+    private static final int LOGINS_PER_PARTITION = 2;
+    private static final int SCREEN_NAMES_PER_PARTITION = 3;
+
+    private final PlayerControllerHttpClient httpClient;
+    private final String editor;
+    private final String screenNameSuffix;
+    private final int workers;
+    private final int operations;
+    private final int partitions;
+    private final long seed;
+    private final String runPrefix;
+    private final List<List<Integer>> createdIds = new ArrayList<>();
+
+    /**
+     * @param editor           login of a user who sends all requests
+     * @param screenNameSuffix suffix of screen names of created players, e.g. the marker of players created by tests
+     */
+    public PlayerStressWorkload(final PlayerControllerHttpClient httpClient,
+                                final String editor,
+                                final String screenNameSuffix,
+                                final int workers,
+                                final int operations,
+                                final int partitions) {
+        this.httpClient = httpClient;
+        this.editor = editor;
+        this.screenNameSuffix = screenNameSuffix;
+        this.workers = workers;
+        this.operations = operations;
+        this.partitions = partitions;
+        this.seed = PlayerGenerator.getInstance().getSeed();
+        this.runPrefix = PlayerGenerator.getInstance().getRunPrefix();
+        for (int i = 0; i < partitions; i++) {
+            createdIds.add(new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * @return workload configured by players.linearizability.workers, players.linearizability.operations and
+     * players.linearizability.partitions properties
+     */
+    public static PlayerStressWorkload fromConfiguration(final PlayerControllerHttpClient httpClient,
+                                                         final String editor,
+                                                         final String screenNameSuffix) {
+        return new PlayerStressWorkload(httpClient, editor, screenNameSuffix,
+                Integer.getInteger("players.linearizability.workers", 16),
+                Integer.getInteger("players.linearizability.operations", 4000),
+                Integer.getInteger("players.linearizability.partitions", 64));
+    }
+
+    /**
+     * Runs the workload and waits until every worker is finished
+     *
+     * @return recorded history
+     */
+    public HistoryRecorder run() {
+        log.info("Running {} operations on {} partitions by {} workers", operations, partitions, workers);
+        final HistoryRecorder recorder = new HistoryRecorder();
+        final long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<CompletableFuture<Void>> finishedWorkers = new ArrayList<>();
+            for (int process = 0; process < workers; process++) {
+                final int workerProcess = process;
+                final int workerOperations = operations / workers + (process < operations % workers ? 1 : 0);
+                finishedWorkers.add(CompletableFuture.runAsync(
+                        () -> runWorker(recorder, workerProcess, workerOperations), executor));
+            }
+            CompletableFuture.allOf(finishedWorkers.toArray(CompletableFuture[]::new)).join();
+        }
+        log.info("{} operations are recorded in {} ms", operations,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return recorder;
+    }
+
+    private void runWorker(final HistoryRecorder recorder, final int process, final int workerOperations) {
+        final SplittableRandom random = new SplittableRandom(seed * 31 + process);
+        for (int i = 0; i < workerOperations; i++) {
+            execute(recorder, process, random.nextInt(partitions), random);
+        }
+    }
+
+    private void execute(final HistoryRecorder recorder,
+                         final int process,
+                         final int partition,
+                         final SplittableRandom random) {
+        final List<Integer> partitionIds = createdIds.get(partition);
+        final Integer playerId = partitionIds.isEmpty() ? null : partitionIds.get(random.nextInt(partitionIds.size()));
+        final int dice = random.nextInt(100);
+        final OperationType type = playerId == null || dice < 25 ? OperationType.CREATE
+                : dice < 50 ? OperationType.UPDATE
+                : dice < 65 ? OperationType.DELETE
+                : OperationType.GET;
+        final Player request = type == OperationType.CREATE ? newPlayer(partition, random)
+                : type == OperationType.UPDATE ? playerUpdate(partition, random)
+                : null;
+        final Integer requestedId = type == OperationType.CREATE ? null : playerId;
+
+        final Operation operation = recorder.invoke(process, "partition-" + partition, type, requestedId, request);
+        final PlayerHttpResponse response;
+        try {
+            response = send(type, requestedId, request).join();
+        } catch (RuntimeException e) {
+            recorder.fail(operation, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            return;
+        }
+        final Player responsePlayer = playerOf(response);
+        recorder.complete(operation, response.getStatusCode(), responsePlayer);
+        if (type == OperationType.CREATE && responsePlayer != null && responsePlayer.getId() != null) {
+            partitionIds.add(responsePlayer.getId());
+        }
+    }
+
+    private CompletableFuture<PlayerHttpResponse> send(final OperationType type,
+                                                       final Integer playerId,
+                                                       final Player request) {
+        switch (type) {
+            case CREATE:
+                return httpClient.createPlayerAsync(request, editor);
+            case UPDATE:
+                return httpClient.updatePlayerAsync(playerId, editor, request);
+            case DELETE:
+                return httpClient.deletePlayerAsync(playerId, editor);
+            default:
+                return httpClient.getPlayerByIdAsync(playerId);
+        }
+    }
+
+    /**
+     * @return player from a successful response or {@code null} if the body is empty or contains no player
+     */
+    private Player playerOf(final PlayerHttpResponse response) {
+        if (!response.isSuccessful() || response.getBody().length == 0) {
+            return null;
+        }
+        try {
+            final Player player = response.as(Player.class);
+            return player == null || player.getId() == null && player.getLogin() == null ? null : player;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Player newPlayer(final int partition, final SplittableRandom random) {
+        return Player.builder()
+                .login(login(partition, random))
+                .password("linPass" + random.nextInt(1_000_000))
+                .screenName(screenName(partition, random))
+                .gender(random.nextBoolean() ? "male" : "female")
+                .age(random.nextInt(17, 60))
+                .role("user")
+                .build();
+    }
+
+    private Player playerUpdate(final int partition, final SplittableRandom random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return Player.builder().login(login(partition, random)).build();
+            case 1:
+                return Player.builder().screenName(screenName(partition, random)).build();
+            default:
+                return Player.builder().age(random.nextInt(17, 60)).build();
+        }
+    }
+
+    private String login(final int partition, final SplittableRandom random) {
+        return "lin_" + runPrefix + "_" + partition + "_" + random.nextInt(LOGINS_PER_PARTITION);
+    }
+
+    private String screenName(final int partition, final SplittableRandom random) {
+        return "Lin_" + runPrefix + "_" + partition + "_" + random.nextInt(SCREEN_NAMES_PER_PARTITION)
+                + screenNameSuffix;
+    }
+}
@@ -0,0 +1,25 @@
+package org.soloviova.liudmyla.linearizability;
+
+import java.util.List;
+
+/**
+ * Sequential specification of an object which a concurrent history is checked against.
+ * States must be immutable and implement equals and hashCode, they are memoized by {@link LinearizabilityChecker}.
+ *
+ * @param <S> state of the object
+ * @author Liudmyla Soloviova
+ */
+public interface SequentialModel<S> {
+
+    S initialState();
+
+    /**
+     * Applies an operation with its observed result to a state
+     *
+     * @param state     state before the operation
+     * @param operation operation with the obtained response
+     * @return states the operation may lead to, more than one if its outcome is unknown, or empty list
+     * if the observed result is impossible in the given state
+     */
+    List<S> step(S state, Operation operation);
+}
@@ -0,0 +1,59 @@
+package org.soloviova.liudmyla.listeners;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.concurrency.ConcurrencyLimit;
+import org.soloviova.liudmyla.concurrency.ServerPermits;
+import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.testng.IAlterSuiteListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Makes the number of tests executed at the same time follow the adaptive {@link ConcurrencyLimit} of
+ * {@link PlayerControllerHttpClient}. TestNG thread pools are raised to the maximum of the limit, and every test
+ * method waits for a worker permit of the current limit before it starts. So the suite runs more tests in parallel
+ * while the server answers fast and fewer when it slows down or fails.
+ * <p>
+ * The adaptive limit is opt-in (players.server.permits.mode=adaptive). If the limit is fixed, which is the default,
+ * the suite runs with the thread counts of its XML file.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class AdaptiveConcurrencyListener implements IAlterSuiteListener, IInvokedMethodListener {
+    private final ConcurrencyLimit limit = PlayerControllerHttpClient.getInstance().getServerPermits().getLimit();
+    private final ServerPermits workerPermits = new ServerPermits(limit);
+
+    @Override
+    public void alter(final List<XmlSuite> suites) {
+        if (!limit.isAdaptive()) {
+            return;
+        }
+        suites.forEach(suite -> {
+            if (suite.getParallel() != XmlSuite.ParallelMode.NONE) {
+                log.info("Thread count of suite '{}' follows the adaptive concurrency limit up to {}",
+                        suite.getName(), limit.getMaxLimit());
+                suite.setThreadCount(Math.max(suite.getThreadCount(), limit.getMaxLimit()));
+                suite.setDataProviderThreadCount(Math.max(suite.getDataProviderThreadCount(), limit.getMaxLimit()));
+            }
+        });
+    }
+
+    @Override
+    public void beforeInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        if (limit.isAdaptive() && method.isTestMethod()) {
+            workerPermits.acquire();
+        }
+    }
+
+    @Override
+    public void afterInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        if (limit.isAdaptive() && method.isTestMethod()) {
+            workerPermits.release();
+        }
+    }
+}
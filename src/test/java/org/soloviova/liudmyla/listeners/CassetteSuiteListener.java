@@ -0,0 +1,45 @@
+package org.soloviova.liudmyla.listeners;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.httpclients.Cassette;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * Runs the suite sequentially while the {@link Cassette} records or replays exchanges. Responses to the same request
+ * are replayed in the recorded order, which is reproduced only when tests and data provider rows are executed one
+ * at a time in the same order. So parallel modes of the suite XML are overridden, e.g. testng.xml runs
+ * like testng-sequential.xml.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class CassetteSuiteListener implements IAlterSuiteListener {
+    private final Cassette cassette = Cassette.getInstance();
+
+    @Override
+    public void alter(final List<XmlSuite> suites) {
+        if (!cassette.isRecording() && !cassette.isReplaying()) {
+            return;
+        }
+        suites.forEach(suite -> {
+            if (suite.getParallel() != XmlSuite.ParallelMode.NONE || suite.getDataProviderThreadCount() != 1) {
+                log.warn("Suite '{}' is {} with parallel='{}' and data-provider-thread-count={}, "
+                                + "but a cassette is reproducible only by a sequential run. "
+                                + "The suite runs sequentially as testng-sequential.xml does",
+                        suite.getName(), cassette.isRecording() ? "recorded" : "replayed",
+                        suite.getParallel(), suite.getDataProviderThreadCount());
+            }
+            suite.setParallel(XmlSuite.ParallelMode.NONE);
+            suite.setThreadCount(1);
+            suite.setDataProviderThreadCount(1);
+            for (final XmlTest test : suite.getTests()) {
+                test.setParallel(XmlSuite.ParallelMode.NONE);
+                test.setThreadCount(1);
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package org.soloviova.liudmyla.listeners;
+
+import org.soloviova.liudmyla.httpclients.ExchangeLogger;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Dumps HTTP exchanges remembered by {@link ExchangeLogger} when a test fails.
+ * TestNG calls these methods on the thread which executed the test, so the dumped exchanges belong to that test.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class ExchangeLogListener implements ITestListener {
+
+    @Override
+    public void onTestStart(final ITestResult result) {
+        ExchangeLogger.clearRecentExchanges();
+    }
+
+    @Override
+    public void onTestSuccess(final ITestResult result) {
+        ExchangeLogger.clearRecentExchanges();
+    }
+
+    @Override
+    public void onTestFailure(final ITestResult result) {
+        ExchangeLogger.dumpRecentExchanges(String.format("Test %s failed with: %s",
+                result.getMethod().getQualifiedName(), result.getThrowable()));
+    }
+}
@@ -0,0 +1,103 @@
+package org.soloviova.liudmyla.listeners;
+
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.soloviova.liudmyla.metrics.EndpointLatencies;
+import org.soloviova.liudmyla.metrics.LatencyBudget;
+import org.soloviova.liudmyla.metrics.LatencyBudgetExceededException;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checks {@link LatencyBudget} of every passed test against latencies of the requests it sent.
+ * If the 95th percentile of an endpoint goes over its budget, the percentile distribution of the endpoint
+ * is attached to the Allure report and the test is reported according to players.latency.budget.mode:
+ * 'broken' (default) reports it as broken, 'fail' reports it as failed and 'off' only logs the violation.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class LatencyBudgetListener implements IInvokedMethodListener {
+    private static final String MODE = System.getProperty("players.latency.budget.mode", "broken");
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    @Override
+    public void afterInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        if (!method.isTestMethod() || testResult.getStatus() != ITestResult.SUCCESS) {
+            return;
+        }
+        final Method testMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+        final Map<String, LatencyBudget> budgets = budgetsOf(method.getTestMethod().getRealClass(), testMethod);
+        if (budgets.isEmpty()) {
+            return;
+        }
+
+        final EndpointLatencies testLatencies = LatencyReportListener.latenciesOf(testResult);
+        final List<String> violations = new ArrayList<>();
+        budgets.values().forEach(budget -> testLatencies.getEndpointHistogram(budget.endpoint())
+                .flatMap(histogram -> checkBudget(budget, histogram))
+                .ifPresent(violations::add));
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        final String message = String.format("Latency budget of %s is exceeded: %s",
+                method.getTestMethod().getQualifiedName(), String.join("; ", violations));
+        log.warn(message);
+        if ("fail".equals(MODE)) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(message));
+        } else if ("broken".equals(MODE)) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new LatencyBudgetExceededException(message));
+        }
+    }
+
+    /**
+     * @return budgets of the test class overridden by budgets of the test method, keyed by endpoint
+     */
+    private static Map<String, LatencyBudget> budgetsOf(final Class<?> testClass, final Method testMethod) {
+        final Map<String, LatencyBudget> budgets = new LinkedHashMap<>();
+        for (final LatencyBudget budget : testClass.getAnnotationsByType(LatencyBudget.class)) {
+            budgets.put(budget.endpoint(), budget);
+        }
+        for (final LatencyBudget budget : testMethod.getAnnotationsByType(LatencyBudget.class)) {
+            budgets.put(budget.endpoint(), budget);
+        }
+        return budgets;
+    }
+
+    /**
+     * @return description of the violation or empty {@link Optional} if the endpoint is within its budget
+     */
+    private static Optional<String> checkBudget(final LatencyBudget budget, final Histogram histogram) {
+        final double p95Millis = histogram.getValueAtPercentile(95.0) / MICROS_PER_MILLI;
+        if (p95Millis <= budget.p95Millis()) {
+            return Optional.empty();
+        }
+        Allure.addAttachment("HTTP latency distribution of " + budget.endpoint(), "text/plain",
+                percentileDistribution(histogram), ".hgrm");
+        return Optional.of(String.format("%s p95=%.1fms over %dms in %d requests", budget.endpoint(), p95Millis,
+                budget.p95Millis(), histogram.getTotalCount()));
+    }
+
+    private static String percentileDistribution(final Histogram histogram) {
+        final ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+        try (PrintStream printStream = new PrintStream(distribution, true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(printStream, MICROS_PER_MILLI);
+        }
+        return distribution.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package org.soloviova.liudmyla.listeners;
+
+import io.qameta.allure.Allure;
+import org.soloviova.liudmyla.metrics.EndpointLatencies;
+import org.soloviova.liudmyla.metrics.LatencyRecorder;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Binds every test method to the thread which executes it, so latencies of HTTP requests sent by the test are
+ * recorded separately, and attaches their summary to the Allure report of the test.
+ * The summary is attached in {@link #afterInvocation} as the Allure test case is still open at that moment.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class LatencyReportListener implements IInvokedMethodListener {
+    private static final String LATENCIES_ATTRIBUTE = EndpointLatencies.class.getName();
+
+    @Override
+    public void beforeInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        if (method.isTestMethod()) {
+            LatencyRecorder.startTest();
+        }
+    }
+
+    @Override
+    public void afterInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        if (method.isTestMethod()) {
+            final EndpointLatencies testLatencies = latenciesOf(testResult);
+            if (!testLatencies.isEmpty()) {
+                Allure.addAttachment("HTTP latency", "text/plain", testLatencies.summary(), ".txt");
+            }
+        }
+    }
+
+    /**
+     * Finishes recording of the test latencies on the first call and keeps them in the test result,
+     * so listeners which need them can be called in any order
+     *
+     * @param testResult result of the test executed by the current thread
+     * @return latencies of the test
+     */
+    static EndpointLatencies latenciesOf(final ITestResult testResult) {
+        EndpointLatencies testLatencies = (EndpointLatencies) testResult.getAttribute(LATENCIES_ATTRIBUTE);
+        if (testLatencies == null) {
+            testLatencies = LatencyRecorder.finishTest();
+            testResult.setAttribute(LATENCIES_ATTRIBUTE, testLatencies);
+        }
+        return testLatencies;
+    }
+}
@@ -0,0 +1,130 @@
+package org.soloviova.liudmyla.listeners;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.UsesResources;
+import org.soloviova.liudmyla.sharding.Shard;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Leaves only the tests of the current {@link Shard} in the suite.
+ * <p>
+ * Test methods are sorted by qualified name, and the method at position p belongs to shard p mod N.
+ * A data-driven method is kept in every shard, but its row i belongs to shard (p + i) mod N, so the rows of
+ * one method are spread across shards. The partition depends only on the suite, so it is the same in every JVM.
+ * <p>
+ * {@link SharedResource} locks serialize tests only within one JVM, while all shards share the one supervisor of
+ * the app. So every test method which reads or writes {@link SharedResource#SUPERVISOR}, with all its rows,
+ * is executed only by the first shard, and the supervisor is restored after the suite by the first shard only.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class ShardInterceptor implements IMethodInterceptor, IDataProviderInterceptor {
+    private final Shard shard = Shard.getInstance();
+    private final Map<String, Integer> methodPositions = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(final List<IMethodInstance> methods, final ITestContext context) {
+        if (!shard.isSharded()) {
+            return methods;
+        }
+        final List<String> sortedNames = methods.stream()
+                .map(method -> method.getMethod().getQualifiedName())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        for (int position = 0; position < sortedNames.size(); position++) {
+            methodPositions.put(sortedNames.get(position), position);
+        }
+
+        final List<IMethodInstance> shardMethods = new ArrayList<>();
+        for (final IMethodInstance method : methods) {
+            final boolean isOwned = usesSupervisor(method.getMethod())
+                    ? shard.isFirst()
+                    : method.getMethod().isDataDriven() || shard.owns(positionOf(method.getMethod()));
+            if (isOwned) {
+                shardMethods.add(method);
+            }
+        }
+        log.info("{} of test '{}' executes {} of {} test methods", shard, context.getName(),
+                shardMethods.size(), methods.size());
+        return shardMethods;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(final Iterator<Object[]> original,
+                                        final IDataProviderMethod dataProviderMethod,
+                                        final ITestNGMethod method,
+                                        final ITestContext context) {
+        return shard.isSharded() && !usesSupervisor(method) ? new ShardRows(original, positionOf(method)) : original;
+    }
+
+    private static boolean usesSupervisor(final ITestNGMethod method) {
+        final Class<?> testClass = method.getRealClass();
+        final Method javaMethod = method.getConstructorOrMethod().getMethod();
+        return usesSupervisor(testClass.getAnnotation(UsesResources.class))
+                || javaMethod != null && usesSupervisor(javaMethod.getAnnotation(UsesResources.class));
+    }
+
+    private static boolean usesSupervisor(final UsesResources usesResources) {
+        return usesResources != null
+                && (Arrays.asList(usesResources.reads()).contains(SharedResource.SUPERVISOR)
+                || Arrays.asList(usesResources.writes()).contains(SharedResource.SUPERVISOR));
+    }
+
+    private int positionOf(final ITestNGMethod method) {
+        return methodPositions.getOrDefault(method.getQualifiedName(), method.getQualifiedName().hashCode());
+    }
+
+    /**
+     * Rows of a data provider which belong to the current shard
+     */
+    private class ShardRows implements Iterator<Object[]> {
+        private final Iterator<Object[]> rows;
+        private final int methodPosition;
+        private int rowIndex;
+        private Object[] nextRow;
+
+        ShardRows(final Iterator<Object[]> rows, final int methodPosition) {
+            this.rows = rows;
+            this.methodPosition = methodPosition;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextRow == null && rows.hasNext()) {
+                final Object[] row = rows.next();
+                if (shard.owns(methodPosition + rowIndex++)) {
+                    nextRow = row;
+                }
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Object[] row = nextRow;
+            nextRow = null;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.soloviova.liudmyla.listeners;
+
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.SharedResourceLocks;
+import org.soloviova.liudmyla.concurrency.UsesResources;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Takes locks of {@link SharedResource}s declared by {@link UsesResources} before a test or configuration method
+ * and releases them after it. Class declarations apply to test methods only. So the suite can run all methods
+ * in parallel, and only methods which really conflict on a resource wait for each other.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class SharedResourceListener implements IInvokedMethodListener {
+    private static final String HELD_LOCKS_ATTRIBUTE = SharedResourceLocks.HeldLocks.class.getName();
+
+    private final SharedResourceLocks resourceLocks = SharedResourceLocks.getInstance();
+
+    @Override
+    public void beforeInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        final Set<SharedResource> reads = EnumSet.noneOf(SharedResource.class);
+        final Set<SharedResource> writes = EnumSet.noneOf(SharedResource.class);
+        final ITestNGMethod testNGMethod = method.getTestMethod();
+        if (method.isTestMethod()) {
+            final Class<?> testClass = testNGMethod.getRealClass();
+            addResources(testClass.getAnnotation(UsesResources.class), reads, writes);
+        }
+        final Method javaMethod = testNGMethod.getConstructorOrMethod().getMethod();
+        if (javaMethod != null) {
+            addResources(javaMethod.getAnnotation(UsesResources.class), reads, writes);
+        }
+        if (!reads.isEmpty() || !writes.isEmpty()) {
+            testResult.setAttribute(HELD_LOCKS_ATTRIBUTE, resourceLocks.lock(reads, writes));
+        }
+    }
+
+    @Override
+    public void afterInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        final Object heldLocks = testResult.removeAttribute(HELD_LOCKS_ATTRIBUTE);
+        if (heldLocks != null) {
+            ((SharedResourceLocks.HeldLocks) heldLocks).close();
+        }
+    }
+
+    private void addResources(final UsesResources usesResources,
+                              final Set<SharedResource> reads,
+                              final Set<SharedResource> writes) {
+        if (usesResources != null) {
+            reads.addAll(Arrays.asList(usesResources.reads()));
+            writes.addAll(Arrays.asList(usesResources.writes()));
+        }
+    }
+}
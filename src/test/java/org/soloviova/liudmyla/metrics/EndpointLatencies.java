@@ -0,0 +1,91 @@
+package org.soloviova.liudmyla.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Latency histograms of HTTP requests keyed by method, endpoint template and status class,
+ * e.g. 'PATCH /update/{editor}/{id} 2xx'. Recording doesn't take locks, so requests completed
+ * on any number of threads can be recorded at the same time.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class EndpointLatencies {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @param method        HTTP method
+     * @param endpoint      endpoint template
+     * @param statusCode    status code of the response or 0 if there is no response
+     * @param durationNanos duration of the request
+     */
+    public void record(final String method, final String endpoint, final int statusCode, final long durationNanos) {
+        final long durationMicros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        histograms.computeIfAbsent(String.join(" ", method, endpoint, statusClass(statusCode)),
+                        key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS))
+                .recordValue(Math.min(Math.max(durationMicros, 0L), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public boolean isEmpty() {
+        return histograms.isEmpty();
+    }
+
+    /**
+     * @param endpointKey method, endpoint template and status class, e.g. 'GET /get/all 2xx'
+     * @return copy of the histogram of the key in microseconds
+     */
+    public Optional<Histogram> getHistogram(final String endpointKey) {
+        return Optional.ofNullable(histograms.get(endpointKey)).map(Histogram::copy);
+    }
+
+    /**
+     * @param endpoint endpoint template, e.g. '/create/{editor}'
+     * @return histogram in microseconds of requests to the endpoint with any method and status
+     * or empty {@link Optional} if there were no such requests
+     */
+    public Optional<Histogram> getEndpointHistogram(final String endpoint) {
+        return histograms.entrySet()
+                .stream()
+                .filter(entry -> endpoint.equals(endpointOf(entry.getKey())))
+                .map(entry -> entry.getValue().copy())
+                .reduce((merged, histogram) -> {
+                    merged.add(histogram);
+                    return merged;
+                });
+    }
+
+    /**
+     * @return one line per endpoint key with request count and percentiles in milliseconds
+     */
+    public String summary() {
+        return histograms.entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> summaryLine(entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String summaryLine(final String endpointKey, final Histogram histogram) {
+        return String.format("%-36s count=%-5d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms", endpointKey,
+                histogram.getTotalCount(), histogram.getValueAtPercentile(50.0) / 1000.0,
+                histogram.getValueAtPercentile(95.0) / 1000.0, histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static String endpointOf(final String endpointKey) {
+        return endpointKey.substring(endpointKey.indexOf(' ') + 1, endpointKey.lastIndexOf(' '));
+    }
+
+    private static String statusClass(final int statusCode) {
+        return statusCode < 100 ? "error" : (statusCode / 100) + "xx";
+    }
+}
@@ -0,0 +1,32 @@
+package org.soloviova.liudmyla.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Latency budget of one endpoint for every test of the annotated class or for the annotated test method.
+ * A budget of a method replaces the budget of its class for the same endpoint.
+ * <p>
+ * The budget is checked by {@link org.soloviova.liudmyla.listeners.LatencyBudgetListener} against requests
+ * sent by the test with any HTTP method and status code.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Repeatable(LatencyBudgets.class)
+public @interface LatencyBudget {
+
+    /**
+     * @return endpoint template as it is recorded by {@link LatencyRecorder}, e.g. '/create/{editor}'
+     */
+    String endpoint();
+
+    /**
+     * @return the highest allowed 95th percentile of the endpoint latency in milliseconds
+     */
+    long p95Millis();
+}
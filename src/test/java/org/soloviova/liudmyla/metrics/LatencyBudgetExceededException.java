@@ -0,0 +1,15 @@
+package org.soloviova.liudmyla.metrics;
+
+/**
+ * Thrown for a test whose requests to an endpoint went over its {@link LatencyBudget}.
+ * It is not an {@link AssertionError}, so Allure reports such a test as broken rather than failed.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class LatencyBudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public LatencyBudgetExceededException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package org.soloviova.liudmyla.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Container of repeated {@link LatencyBudget} annotations
+ *
+ * @author Liudmyla Soloviova
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface LatencyBudgets {
+
+    LatencyBudget[] value();
+}
@@ -0,0 +1,37 @@
+package org.soloviova.liudmyla.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter which records latency of a request to {@link LatencyRecorder} under the given
+ * endpoint template, e.g. '/update/{editor}/{id}', so requests with different path parameters are
+ * recorded together.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class LatencyFilter implements Filter {
+    private final String endpoint;
+
+    public LatencyFilter(final String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public Response filter(final FilterableRequestSpecification requestSpec,
+                           final FilterableResponseSpecification responseSpec,
+                           final FilterContext context) {
+        final long start = System.nanoTime();
+        int statusCode = 0;
+        try {
+            final Response response = context.next(requestSpec, responseSpec);
+            statusCode = response.getStatusCode();
+            return response;
+        } finally {
+            LatencyRecorder.record(requestSpec.getMethod(), endpoint, statusCode, System.nanoTime() - start);
+        }
+    }
+}
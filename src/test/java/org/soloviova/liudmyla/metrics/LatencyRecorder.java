@@ -0,0 +1,56 @@
+package org.soloviova.liudmyla.metrics;
+
+/**
+ * Records latency of every HTTP request to the suite-wide {@link EndpointLatencies} and to the latencies
+ * of the test which is executed by the current thread, if any.
+ * <p>
+ * Tests are bound to threads by {@link org.soloviova.liudmyla.listeners.LatencyReportListener}. Asynchronous
+ * requests should capture {@link #currentTestLatencies()} when they are sent and record to it on completion,
+ * as they complete on other threads.
+ *
+ * @author Liudmyla Soloviova
+ */
+public final class LatencyRecorder {
+    private static final EndpointLatencies SUITE_LATENCIES = new EndpointLatencies();
+    private static final ThreadLocal<EndpointLatencies> TEST_LATENCIES = new ThreadLocal<>();
+
+    private LatencyRecorder() {
+    }
+
+    public static void record(final String method, final String endpoint, final int statusCode,
+                              final long durationNanos) {
+        record(currentTestLatencies(), method, endpoint, statusCode, durationNanos);
+    }
+
+    /**
+     * @param testLatencies latencies of the test which sent the request or {@code null} if it was sent outside tests
+     */
+    public static void record(final EndpointLatencies testLatencies, final String method, final String endpoint,
+                              final int statusCode, final long durationNanos) {
+        SUITE_LATENCIES.record(method, endpoint, statusCode, durationNanos);
+        if (testLatencies != null) {
+            testLatencies.record(method, endpoint, statusCode, durationNanos);
+        }
+    }
+
+    public static EndpointLatencies currentTestLatencies() {
+        return TEST_LATENCIES.get();
+    }
+
+    public static void startTest() {
+        TEST_LATENCIES.set(new EndpointLatencies());
+    }
+
+    /**
+     * @return latencies of the test executed by the current thread
+     */
+    public static EndpointLatencies finishTest() {
+        final EndpointLatencies testLatencies = TEST_LATENCIES.get();
+        TEST_LATENCIES.remove();
+        return testLatencies == null ? new EndpointLatencies() : testLatencies;
+    }
+
+    public static EndpointLatencies getSuiteLatencies() {
+        return SUITE_LATENCIES;
+    }
+}
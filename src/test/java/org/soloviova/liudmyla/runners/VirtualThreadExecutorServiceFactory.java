@@ -0,0 +1,30 @@
+package org.soloviova.liudmyla.runners;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates executors which run every TestNG task (test method or data provider row) on its own virtual thread.
+ * Pool sizes requested by TestNG are ignored: concurrency is limited by server permits of
+ * {@link org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient} instead of platform threads.
+ *
+ * @author Liudmyla Soloviova
+ */
+public class VirtualThreadExecutorServiceFactory implements IExecutorServiceFactory {
+
+    @Override
+    public ExecutorService create(final int corePoolSize,
+                                  final int maximumPoolSize,
+                                  final long keepAliveTime,
+                                  final TimeUnit unit,
+                                  final BlockingQueue<Runnable> workQueue,
+                                  final ThreadFactory threadFactory) {
+        // TestNG recognizes its own threads by "TestNG" in the thread name
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("TestNG-virtual-", 0).factory());
+    }
+}
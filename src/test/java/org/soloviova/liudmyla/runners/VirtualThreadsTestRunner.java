@@ -0,0 +1,37 @@
+package org.soloviova.liudmyla.runners;
+
+import lombok.extern.slf4j.Slf4j;
+import org.testng.TestNG;
+
+import java.util.List;
+
+/**
+ * Runs TestNG suites with test methods and parallel data provider rows executed on virtual threads.
+ * TestNG allows to plug in an executor factory only programmatically, so this runner is started by
+ * the 'virtual-threads' Maven profile instead of surefire.
+ * <p>
+ * Arguments: path to the suite XML file and the output directory for TestNG reports.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public final class VirtualThreadsTestRunner {
+
+    private VirtualThreadsTestRunner() {
+    }
+
+    public static void main(final String[] args) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: VirtualThreadsTestRunner <suite xml> <output directory>");
+        }
+        log.info("Running suite {} on virtual threads", args[0]);
+
+        final TestNG testNG = new TestNG();
+        testNG.setTestSuites(List.of(args[0]));
+        testNG.setOutputDirectory(args[1]);
+        testNG.setExecutorServiceFactory(new VirtualThreadExecutorServiceFactory());
+        testNG.run();
+
+        System.exit(testNG.getStatus());
+    }
+}
@@ -0,0 +1,67 @@
+package org.soloviova.liudmyla.sharding;
+
+/**
+ * Shard of the suite executed by this JVM.
+ * <p>
+ * The suite is split into players.shard.count shards (1 by default, i.e. no sharding), and this JVM executes
+ * the shard with zero-based players.shard.index. Every shard gets the same deterministic partition
+ * of test methods and data provider rows, so N JVMs or CI nodes started with indexes 0..N-1 execute
+ * every test exactly once.
+ *
+ * @author Liudmyla Soloviova
+ */
+public final class Shard {
+    private static final Shard INSTANCE = new Shard(Integer.getInteger("players.shard.index", 0),
+            Integer.getInteger("players.shard.count", 1));
+
+    private final int index;
+    private final int count;
+
+    public Shard(final int index, final int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException(String.format(
+                    "Shard index must be from 0 to %d, but was %d", count - 1, index));
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @return shard configured by players.shard.index and players.shard.count properties
+     */
+    public static Shard getInstance() {
+        return INSTANCE;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    /**
+     * @return {@code true} for the first shard, which is also the only shard if the suite is not sharded
+     */
+    public boolean isFirst() {
+        return index == 0;
+    }
+
+    /**
+     * @param position position of a test method or a data provider row in the suite, the same in every shard
+     * @return {@code true} if the test method or the row is executed by this shard
+     */
+    public boolean owns(final int position) {
+        return Math.floorMod(position, count) == index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("shard %d of %d", index + 1, count);
+    }
+}
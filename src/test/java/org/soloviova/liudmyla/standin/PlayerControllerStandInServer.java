@@ -0,0 +1,192 @@
+package org.soloviova.liudmyla.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.mappers.PlayerMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in of the Player controller. It implements the five player endpoints on top of
+ * {@link StandInPlayerStore}, so the suite can run locally without network and without sharing state
+ * with other users of the real app.
+ * <p>
+ * The stand-in is enabled by players.standin=true property and listens on players.standin.port (8089 by default).
+ * Every request is handled on its own virtual thread.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public final class PlayerControllerStandInServer {
+    private static final boolean ENABLED = Boolean.getBoolean("players.standin");
+    private static final int PORT = Integer.getInteger("players.standin.port", 8089);
+    private static final String CONTEXT_PATH = "/player";
+
+    private static HttpServer server;
+
+    private final StandInPlayerStore store = new StandInPlayerStore();
+    private final PlayerMapper mapper = PlayerMapper.getInstance();
+
+    private PlayerControllerStandInServer() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static String getBaseUrl() {
+        return "http://127.0.0.1:" + PORT + CONTEXT_PATH;
+    }
+
+    /**
+     * Starts the stand-in with an empty store containing only the supervisor. Does nothing if it is already started.
+     */
+    public static synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            final PlayerControllerStandInServer standIn = new PlayerControllerStandInServer();
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT), 0);
+            server.createContext(CONTEXT_PATH, standIn::handle);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            log.info("Player controller stand-in is started at {}", getBaseUrl());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Player controller stand-in cannot be started", e);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+            log.info("Player controller stand-in is stopped");
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (StandInRequestException e) {
+            respond(exchange, e.getStatusCode(), mapper.mapPlayerObjectToJsonBytesSuppressException(
+                    Map.of("error", e.getMessage())));
+        } catch (Exception e) {
+            log.error("Stand-in failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            respond(exchange, 500, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(final HttpExchange exchange) throws IOException {
+        final String[] segments = Arrays.stream(exchange.getRequestURI().getRawPath()
+                        .substring(CONTEXT_PATH.length())
+                        .split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(segment -> URLDecoder.decode(segment, StandardCharsets.UTF_8))
+                .toArray(String[]::new);
+        final String method = exchange.getRequestMethod();
+        final String endpoint = segments.length > 0 ? segments[0] : "";
+
+        if (endpoint.equals("get") && segments.length == 2 && segments[1].equals("all")) {
+            requireMethod(method, "GET");
+            respond(exchange, 200, mapper.mapPlayerObjectToJsonBytesSuppressException(
+                    Map.of("players", store.getAllPlayers())));
+        } else if (endpoint.equals("get") && segments.length == 1) {
+            requireMethod(method, "POST");
+            final Player player = store.getPlayer(readPlayerId(exchange))
+                    .orElseThrow(() -> new StandInRequestException(404, "Player is not found"));
+            respond(exchange, 200, mapper.mapPlayerObjectToJsonBytesSuppressException(player));
+        } else if (endpoint.equals("create") && segments.length == 2) {
+            requireMethod(method, "GET");
+            final Player createdPlayer = store.createPlayer(segments[1], readPlayerFromQuery(exchange));
+            respond(exchange, 200, mapper.mapPlayerObjectToJsonBytesSuppressException(createdPlayer));
+        } else if (endpoint.equals("update") && segments.length == 3) {
+            requireMethod(method, "PATCH");
+            final Player update = readBody(exchange, Player.class);
+            final Player updatedPlayer = store.updatePlayer(segments[1], parseNumber(segments[2]), update);
+            respond(exchange, 200, mapper.mapPlayerObjectToJsonBytesSuppressException(updatedPlayer));
+        } else if (endpoint.equals("delete") && segments.length == 2) {
+            requireMethod(method, "DELETE");
+            store.deletePlayer(segments[1], readPlayerId(exchange));
+            respond(exchange, 204, null);
+        } else {
+            throw new StandInRequestException(404, "Not found");
+        }
+    }
+
+    private void requireMethod(final String actualMethod, final String expectedMethod) {
+        if (!actualMethod.equals(expectedMethod)) {
+            throw new StandInRequestException(405, "Method " + actualMethod + " is not allowed");
+        }
+    }
+
+    private Integer readPlayerId(final HttpExchange exchange) throws IOException {
+        final Object playerId = readBody(exchange, Map.class).get("playerId");
+        if (playerId != null && !(playerId instanceof Number)) {
+            throw new StandInRequestException(400, "playerId must be a number");
+        }
+        return playerId == null ? null : ((Number) playerId).intValue();
+    }
+
+    private <T> T readBody(final HttpExchange exchange, final Class<T> bodyClass) throws IOException {
+        final byte[] body = exchange.getRequestBody().readAllBytes();
+        try {
+            return mapper.mapJsonBytesToPlayerObject(body, bodyClass);
+        } catch (IOException e) {
+            throw new StandInRequestException(400, "Request body cannot be parsed: " + e.getMessage());
+        }
+    }
+
+    private Player readPlayerFromQuery(final HttpExchange exchange) {
+        final Map<String, String> params = new HashMap<>();
+        final String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (final String param : query.split("&")) {
+                final String[] nameAndValue = param.split("=", 2);
+                if (nameAndValue.length == 2) {
+                    params.put(URLDecoder.decode(nameAndValue[0], StandardCharsets.UTF_8),
+                            URLDecoder.decode(nameAndValue[1], StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return Player.builder()
+                .login(params.get("login"))
+                .password(params.get("password"))
+                .screenName(params.get("screenName"))
+                .gender(params.get("gender"))
+                .age(params.containsKey("age") ? parseNumber(params.get("age")) : null)
+                .role(params.get("role"))
+                .build();
+    }
+
+    private Integer parseNumber(final String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new StandInRequestException(400, "Not a number: " + value);
+        }
+    }
+
+    private void respond(final HttpExchange exchange, final int statusCode, final byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
@@ -0,0 +1,177 @@
+package org.soloviova.liudmyla.standin;
+
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.entities.PlayerItem;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Concurrent in-memory store of players which implements the rules of the app described in README.
+ * Reads don't take locks; mutations are serialized, so uniqueness of login and screenName can't be broken
+ * by concurrent requests.
+ *
+ * @author Liudmyla Soloviova
+ */
+class StandInPlayerStore {
+    private static final String SUPERVISOR = "supervisor";
+    private static final String ADMIN = "admin";
+    private static final String USER = "user";
+    private static final Set<String> CREATABLE_ROLES = Set.of(ADMIN, USER);
+    private static final Set<String> GENDERS = Set.of("male", "female");
+
+    private final ConcurrentMap<Integer, Player> playersById = new ConcurrentHashMap<>();
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    StandInPlayerStore() {
+        // the default supervisor of the app, it has no password in responses
+        final Player supervisor = Player.builder()
+                .id(lastId.incrementAndGet())
+                .login(SUPERVISOR)
+                .screenName(SUPERVISOR)
+                .age(28)
+                .gender("male")
+                .role(SUPERVISOR)
+                .build();
+        playersById.put(supervisor.getId(), supervisor);
+    }
+
+    List<PlayerItem> getAllPlayers() {
+        return playersById.values()
+                .stream()
+                .sorted(Comparator.comparing(Player::getId))
+                .map(player -> new PlayerItem(player.getId(), player.getScreenName(), player.getGender(),
+                        player.getAge(), player.getRole()))
+                .collect(Collectors.toList());
+    }
+
+    Optional<Player> getPlayer(final Integer playerId) {
+        return Optional.ofNullable(playerId).map(playersById::get).map(this::copyOf);
+    }
+
+    synchronized Player createPlayer(final String editorLogin, final Player player) {
+        final Player editor = getEditor(editorLogin);
+        if (USER.equals(editor.getRole())) {
+            throw new StandInRequestException(403, "Users cannot create players");
+        }
+        if (Objects.isNull(player.getLogin()) || Objects.isNull(player.getPassword())
+                || Objects.isNull(player.getScreenName()) || Objects.isNull(player.getGender())
+                || Objects.isNull(player.getAge()) || Objects.isNull(player.getRole())) {
+            throw new StandInRequestException(400, "All fields of a new player are required");
+        }
+        if (!CREATABLE_ROLES.contains(player.getRole())) {
+            throw new StandInRequestException(403, "Only admins and users can be created");
+        }
+        validateFields(null, player);
+
+        final Player createdPlayer = copyOf(player);
+        createdPlayer.setId(lastId.incrementAndGet());
+        playersById.put(createdPlayer.getId(), createdPlayer);
+        return copyOf(createdPlayer);
+    }
+
+    synchronized Player updatePlayer(final String editorLogin, final Integer playerId, final Player update) {
+        final Player editor = getEditor(editorLogin);
+        final Player player = Optional.ofNullable(playerId)
+                .map(playersById::get)
+                .orElseThrow(() -> new StandInRequestException(404, "Player is not found"));
+
+        final boolean isHimself = editor.getId().equals(player.getId());
+        final boolean isAllowed = SUPERVISOR.equals(editor.getRole())
+                || isHimself
+                || ADMIN.equals(editor.getRole()) && USER.equals(player.getRole());
+        if (!isAllowed) {
+            throw new StandInRequestException(403, "Editor is not allowed to update the player");
+        }
+        if (update.getRole() != null && !update.getRole().equals(player.getRole())
+                && !(SUPERVISOR.equals(editor.getRole()) && CREATABLE_ROLES.contains(update.getRole())
+                && !SUPERVISOR.equals(player.getRole()))) {
+            throw new StandInRequestException(403, "Role of the player cannot be changed");
+        }
+        validateFields(player.getId(), update);
+
+        // stored players are never modified in place, so readers always see a consistent player
+        final Player updatedPlayer = copyOf(player);
+        Optional.ofNullable(update.getLogin()).ifPresent(updatedPlayer::setLogin);
+        Optional.ofNullable(update.getPassword()).ifPresent(updatedPlayer::setPassword);
+        Optional.ofNullable(update.getScreenName()).ifPresent(updatedPlayer::setScreenName);
+        Optional.ofNullable(update.getGender()).ifPresent(updatedPlayer::setGender);
+        Optional.ofNullable(update.getAge()).ifPresent(updatedPlayer::setAge);
+        Optional.ofNullable(update.getRole()).ifPresent(updatedPlayer::setRole);
+        playersById.put(updatedPlayer.getId(), updatedPlayer);
+        return copyOf(updatedPlayer);
+    }
+
+    synchronized void deletePlayer(final String editorLogin, final Integer playerId) {
+        final Player editor = getEditor(editorLogin);
+        final Player player = Optional.ofNullable(playerId)
+                .map(playersById::get)
+                .orElseThrow(() -> new StandInRequestException(404, "Player is not found"));
+
+        final boolean isAllowed = !SUPERVISOR.equals(player.getRole())
+                && !editor.getId().equals(player.getId())
+                && (SUPERVISOR.equals(editor.getRole())
+                || ADMIN.equals(editor.getRole()) && USER.equals(player.getRole()));
+        if (!isAllowed) {
+            throw new StandInRequestException(403, "Editor is not allowed to delete the player");
+        }
+        playersById.remove(player.getId());
+    }
+
+    private Player getEditor(final String editorLogin) {
+        return findByLogin(editorLogin)
+                .orElseThrow(() -> new StandInRequestException(403, "Editor is not found"));
+    }
+
+    private Optional<Player> findByLogin(final String login) {
+        return playersById.values().stream().filter(player -> player.getLogin().equals(login)).findAny();
+    }
+
+    /**
+     * Validates non-null fields of the given player data
+     *
+     * @param playerId id of the player being updated or null for a new player
+     * @param player   player data to validate
+     */
+    private void validateFields(final Integer playerId, final Player player) {
+        if (player.getAge() != null && (player.getAge() <= 16 || player.getAge() >= 60)) {
+            throw new StandInRequestException(403, "Age must be more than 16 and less than 60");
+        }
+        if (player.getGender() != null && !GENDERS.contains(player.getGender())) {
+            throw new StandInRequestException(403, "Gender can be only 'male' or 'female'");
+        }
+        if (player.getPassword() != null && player.getPassword().isBlank()) {
+            throw new StandInRequestException(403, "Password cannot be empty");
+        }
+        final boolean isLoginTaken = player.getLogin() != null && playersById.values().stream()
+                .anyMatch(other -> !other.getId().equals(playerId) && other.getLogin().equals(player.getLogin()));
+        if (isLoginTaken) {
+            throw new StandInRequestException(403, "Login is already taken");
+        }
+        final boolean isScreenNameTaken = player.getScreenName() != null && playersById.values().stream()
+                .anyMatch(other -> !other.getId().equals(playerId)
+                        && other.getScreenName().equals(player.getScreenName()));
+        if (isScreenNameTaken) {
+            throw new StandInRequestException(403, "ScreenName is already taken");
+        }
+    }
+
+    private Player copyOf(final Player player) {
+        return Player.builder()
+                .id(player.getId())
+                .login(player.getLogin())
+                .password(player.getPassword())
+                .screenName(player.getScreenName())
+                .gender(player.getGender())
+                .age(player.getAge())
+                .role(player.getRole())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package org.soloviova.liudmyla.standin;
+
+import lombok.Getter;
+
+/**
+ * Thrown by {@link StandInPlayerStore} when a request violates the rules of the app.
+ * Contains the status code which is returned to the client.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+public class StandInRequestException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public StandInRequestException(final int statusCode, final String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+}
@@ -0,0 +1,206 @@
+package org.soloviova.liudmyla.testdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.sharding.Shard;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe generator of test Players.
+ * <p>
+ * Logins and screen names are unique: they end with the run prefix and the number of the value among values
+ * with the same hint, so they never repeat within a run and don't clash with values left by other runs.
+ * Other fields are random within the rules of the app: age from 17 to 59, gender 'male' or 'female',
+ * role 'user' (80%) or 'admin' (20%), password of 8 to 14 letters and digits.
+ * <p>
+ * Players are numbered separately for every role and violation, and random values of every Player are taken
+ * from its own {@link SplittableRandom} seeded by the generator seed, the kind and the number of the Player.
+ * So the n-th generated admin, for instance, is the same in every run with the same players.data.seed
+ * and players.data.prefix properties, whichever thread generates it and whatever else is generated
+ * by other threads meanwhile. There are no locks, the only shared state is one counter per hint.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public final class PlayerGenerator {
+    static final int MIN_AGE = 17;
+    static final int MAX_AGE = 59;
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long KIND_GAMMA = 0xBF58476D1CE4E5B9L;
+    private static final char[] PASSWORD_LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] PASSWORD_DIGITS = "0123456789".toCharArray();
+    private static final PlayerViolation[] VIOLATIONS = PlayerViolation.values();
+    private static final PlayerGenerator INSTANCE = new PlayerGenerator(
+            Long.getLong("players.data.seed", System.nanoTime()),
+            shardPrefix(System.getProperty("players.data.prefix", Long.toString(System.currentTimeMillis(), 36))));
+
+    private final long seed;
+    private final String runPrefix;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public PlayerGenerator(final long seed, final String runPrefix) {
+        this.seed = seed;
+        this.runPrefix = runPrefix;
+        log.info("Test data generator seed: {}, run prefix: {}", seed, runPrefix);
+    }
+
+    /**
+     * @return generator configured by players.data.seed and players.data.prefix properties
+     */
+    public static PlayerGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Shards of one run generate different values: the shard index is appended to the prefix if the suite is sharded
+     */
+    private static String shardPrefix(final String runPrefix) {
+        final Shard shard = Shard.getInstance();
+        return shard.isSharded() ? runPrefix + "s" + shard.getIndex() : runPrefix;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getRunPrefix() {
+        return runPrefix;
+    }
+
+    /**
+     * Suffix of screen names of Players created by tests and load runs, which marks them for cleanup.
+     * If the suite is sharded, every shard has its own marker, so shards don't delete players of each other.
+     *
+     * @return ' [CREATED_BY_TESTS]' or ' [CREATED_BY_TESTS run_prefix]' if the suite is sharded
+     */
+    public String getCreatedPlayersMarker() {
+        return Shard.getInstance().isSharded() ? " [CREATED_BY_TESTS " + runPrefix + "]" : " [CREATED_BY_TESTS]";
+    }
+
+    /**
+     * @param hint readable beginning of the value, e.g. 'john_doe'
+     * @return value unique within the run, e.g. 'john_doe_mvdes2zy_1f'
+     */
+    public String uniqueName(final String hint) {
+        return uniqueName(hint, nextNumber(hint));
+    }
+
+    /**
+     * @return valid Player with role 'user' or 'admin'
+     */
+    public Player validPlayer() {
+        final String kind = "player";
+        final long number = nextNumber(kind);
+        final SplittableRandom random = randomOf(kind, number);
+        return validPlayer(kind, number, random, random.nextInt(5) == 0 ? "admin" : "user");
+    }
+
+    /**
+     * @param role role of the Player
+     * @return valid Player with the given role
+     */
+    public Player validPlayer(final String role) {
+        final String kind = "player_" + role;
+        final long number = nextNumber(kind);
+        return validPlayer(kind, number, randomOf(kind, number), role);
+    }
+
+    /**
+     * @param violation rule of the app which the Player breaks
+     * @return Player which is valid except for the given violation
+     */
+    public Player invalidPlayer(final PlayerViolation violation) {
+        final String kind = "invalid_" + violation.name().toLowerCase(Locale.ROOT);
+        final long number = nextNumber(kind);
+        final SplittableRandom random = randomOf(kind, number);
+        final Player player = validPlayer(kind, number, random, "user");
+        violation.apply(player, random);
+        return player;
+    }
+
+    /**
+     * @return Player which breaks one randomly chosen rule of the app
+     */
+    public Player invalidPlayer() {
+        final String kind = "invalid";
+        final long number = nextNumber(kind);
+        final SplittableRandom random = randomOf(kind, number);
+        final Player player = validPlayer(kind, number, random, "user");
+        VIOLATIONS[random.nextInt(VIOLATIONS.length)].apply(player, random);
+        return player;
+    }
+
+    /**
+     * @return infinite stream of valid Players, it can be consumed in parallel
+     */
+    public Stream<Player> validPlayers() {
+        return Stream.generate(this::validPlayer);
+    }
+
+    /**
+     * @return infinite stream of Players which break one rule each, it can be consumed in parallel
+     */
+    public Stream<Player> invalidPlayers() {
+        return Stream.generate(this::invalidPlayer);
+    }
+
+    /**
+     * @param kind hint of the login and the screen name, the number is counted among Players of this kind
+     */
+    private Player validPlayer(final String kind, final long number, final SplittableRandom random,
+                               final String role) {
+        return Player.builder()
+                .login(uniqueName(kind, number))
+                .password(password(random))
+                .screenName(uniqueName(Character.toUpperCase(kind.charAt(0)) + kind.substring(1), number))
+                .gender(random.nextBoolean() ? "male" : "female")
+                .age(random.nextInt(MIN_AGE, MAX_AGE + 1))
+                .role(role)
+                .build();
+    }
+
+    private long nextNumber(final String hint) {
+        AtomicLong counter = counters.get(hint);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(hint, key -> new AtomicLong());
+        }
+        return counter.incrementAndGet();
+    }
+
+    private SplittableRandom randomOf(final String kind, final long number) {
+        return new SplittableRandom(seed + kind.hashCode() * KIND_GAMMA + number * SEED_GAMMA);
+    }
+
+    private String uniqueName(final String hint, final long number) {
+        return new StringBuilder(hint.length() + runPrefix.length() + 15)
+                .append(hint)
+                .append('_')
+                .append(runPrefix)
+                .append('_')
+                .append(Long.toString(number, 36))
+                .toString();
+    }
+
+    /**
+     * Letters and digits with at least one of each
+     */
+    private static String password(final SplittableRandom random) {
+        final char[] password = new char[random.nextInt(8, 15)];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = random.nextInt(4) == 0
+                    ? PASSWORD_DIGITS[random.nextInt(PASSWORD_DIGITS.length)]
+                    : PASSWORD_LETTERS[random.nextInt(PASSWORD_LETTERS.length)];
+        }
+        final int digitPosition = random.nextInt(password.length);
+        final int letterPosition = (digitPosition + 1 + random.nextInt(password.length - 1)) % password.length;
+        password[digitPosition] = PASSWORD_DIGITS[random.nextInt(PASSWORD_DIGITS.length)];
+        password[letterPosition] = PASSWORD_LETTERS[random.nextInt(PASSWORD_LETTERS.length)];
+        return new String(password);
+    }
+}
@@ -0,0 +1,64 @@
+package org.soloviova.liudmyla.testdata;
+
+import org.soloviova.liudmyla.entities.Player;
+
+import java.util.SplittableRandom;
+
+/**
+ * Rules of the app a generated Player can deliberately break. Each violation breaks exactly one rule
+ * of a valid Player, so the app is expected to reject it for that reason only.
+ *
+ * @author Liudmyla Soloviova
+ */
+public enum PlayerViolation {
+    AGE_TOO_LOW {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setAge(random.nextInt(0, PlayerGenerator.MIN_AGE));
+        }
+    },
+    AGE_TOO_HIGH {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setAge(random.nextInt(PlayerGenerator.MAX_AGE + 1, 121));
+        }
+    },
+    UNKNOWN_GENDER {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setGender(random.nextBoolean() ? "other" : "");
+        }
+    },
+    SUPERVISOR_ROLE {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setRole("supervisor");
+        }
+    },
+    UNKNOWN_ROLE {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setRole("moderator");
+        }
+    },
+    BLANK_PASSWORD {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setPassword(random.nextBoolean() ? "" : "   ");
+        }
+    },
+    MISSING_LOGIN {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setLogin(null);
+        }
+    },
+    MISSING_SCREEN_NAME {
+        @Override
+        void apply(final Player player, final SplittableRandom random) {
+            player.setScreenName(null);
+        }
+    };
+
+    abstract void apply(Player player, SplittableRandom random);
+}
@@ -1,10 +1,10 @@
 package org.soloviova.liudmyla.testdata;
 
-import org.apache.commons.lang3.RandomStringUtils;
 import org.soloviova.liudmyla.entities.Player;
 import org.testng.annotations.DataProvider;
 
 public class TestDataProviders {
+    private static final PlayerGenerator GENERATOR = PlayerGenerator.getInstance();
 
     @DataProvider(parallel = true)
     private static Object[][] wrongUrisForGetAllPlayers() {
@@ -14,6 +14,14 @@ public class TestDataProviders {
         };
     }
 
+    @DataProvider(parallel = true)
+    public static Object[][] userAndAdminRoles() {
+        return new Object[][]{
+                {"user"},
+                {"admin"}
+        };
+    }
+
     @DataProvider(parallel = true)
     public static Object[][] wrongPlayerIds() {
         return new Object[][]{
@@ -28,9 +36,9 @@ public class TestDataProviders {
         return new Object[][] {
                 {
                     Player.builder()
-                            .login(generateRandomString("Adventurer"))
+                            .login(GENERATOR.uniqueName("Adventurer"))
                             .password("VyqvTtY736JJSD")
-                            .screenName(generateRandomString("Alice Ashcroft"))
+                            .screenName(GENERATOR.uniqueName("Alice Ashcroft"))
                             .gender("female")
                             .age(24)
                             .role("user")
@@ -39,9 +47,9 @@ public class TestDataProviders {
                 },
                 {
                         Player.builder()
-                                .login(generateRandomString("thomas_birne"))
+                                .login(GENERATOR.uniqueName("thomas_birne"))
                                 .password("uTCcvjew64ejd3")
-                                .screenName(generateRandomString("Tom Birne"))
+                                .screenName(GENERATOR.uniqueName("Tom Birne"))
                                 .gender("male")
                                 .age(29)
                                 .role("admin")
@@ -50,9 +58,9 @@ public class TestDataProviders {
                 },
                 {
                         Player.builder()
-                                .login(generateRandomString("Starkiller99"))
+                                .login(GENERATOR.uniqueName("Starkiller99"))
                                 .password("nnjcei2gc")
-                                .screenName(generateRandomString("Neil_Starkiller"))
+                                .screenName(GENERATOR.uniqueName("Neil_Starkiller"))
                                 .gender("male")
                                 .age(23)
                                 .role("user")
@@ -61,9 +69,9 @@ public class TestDataProviders {
                 },
                 {
                         Player.builder()
-                                .login(generateRandomString("hanna_epic"))
+                                .login(GENERATOR.uniqueName("hanna_epic"))
                                 .password("Bhcuweyyvxcuq")
-                                .screenName(generateRandomString("Johanna_The_One"))
+                                .screenName(GENERATOR.uniqueName("Johanna_The_One"))
                                 .gender("female")
                                 .age(28)
                                 .role("admin")
@@ -81,9 +89,9 @@ public class TestDataProviders {
                         .age(31)
                         .role("user")
                         .gender("male")
-                        .login(generateRandomString("mr_smith"))
+                        .login(GENERATOR.uniqueName("mr_smith"))
                         .password("Password0123")
-                        .screenName(generateRandomString("John_Smith"))
+                        .screenName(GENERATOR.uniqueName("John_Smith"))
                         .build(),
                         "admin"
                 },
@@ -92,9 +100,9 @@ public class TestDataProviders {
                                 .age(30)
                                 .role("admin")
                                 .gender("female")
-                                .login(generateRandomString("jane_smith"))
+                                .login(GENERATOR.uniqueName("jane_smith"))
                                 .password("1Passw0rd567")
-                                .screenName(generateRandomString("Jane_Smith"))
+                                .screenName(GENERATOR.uniqueName("Jane_Smith"))
                                 .build(),
                         "supervisor"
                 },
@@ -103,9 +111,9 @@ public class TestDataProviders {
                                 .age(27)
                                 .role("user")
                                 .gender("male")
-                                .login(generateRandomString("alex_smith"))
+                                .login(GENERATOR.uniqueName("alex_smith"))
                                 .password("qwert09Password0123")
-                                .screenName(generateRandomString("AleXSmith"))
+                                .screenName(GENERATOR.uniqueName("AleXSmith"))
                                 .build(),
                         "supervisor"
                 }
@@ -117,20 +125,20 @@ public class TestDataProviders {
         return new Object[][]{
                 {
                         Player.builder()
-                                .login("bob1997")
-                                .password(generateRandomString("bgheyurg6HW&"))
+                                .login(GENERATOR.uniqueName("bob1997"))
+                                .password(GENERATOR.uniqueName("bgheyurg6HW&"))
                                 .age(25)
                                 .role("user")
                                 .gender("male")
-                                .screenName(generateRandomString("BobRoberts"))
+                                .screenName(GENERATOR.uniqueName("BobRoberts"))
                                 .build(),
                         Player.builder()
-                                .login(generateRandomString("alan_morgan"))
+                                .login(GENERATOR.uniqueName("alan_morgan"))
                                 .password("9gnutUtfv")
                                 .age(27)
                                 .role("user")
                                 .gender("male")
-                                .screenName(generateRandomString("Alan_Morgan"))
+                                .screenName(GENERATOR.uniqueName("Alan_Morgan"))
                                 .build()
                 }
         };
@@ -139,47 +147,30 @@ public class TestDataProviders {
     @DataProvider(parallel = true)
     public static Object[][] usersBeyondAllowedAge() {
         return new Object[][] {
-                {
-                    Player.builder()
-                            .login(generateRandomString("anonym_user2010"))
-                            .password("fbrhwuui2")
-                            .screenName(generateRandomString("Anonymus_10"))
-                            .age(12)
-                            .role("user")
-                            .gender("male")
-                            .build()
-                },
-                {
-                    Player.builder()
-                            .login(generateRandomString("jane_doe"))
-                            .password("qwertyuiop10")
-                            .screenName(generateRandomString("Jane_Doe_player"))
-                            .age(62)
-                            .gender("female")
-                            .role("user")
-                            .build()
-                }
+                {GENERATOR.invalidPlayer(PlayerViolation.AGE_TOO_LOW)},
+                {GENERATOR.invalidPlayer(PlayerViolation.AGE_TOO_HIGH)}
         };
     }
 
     @DataProvider(parallel = true)
     public static Object[][] twoUsersWithTheSameLogin() {
+        final String login = GENERATOR.uniqueName("Winner");
         return new Object[][] {
                 {
                     Player.builder()
-                            .login("Winner")
+                            .login(login)
                             .password("123password456")
                             .gender("male")
                             .age(26)
-                            .screenName("WINNER")
+                            .screenName(GENERATOR.uniqueName("WINNER"))
                             .role("user")
                             .build(),
                         Player.builder()
-                                .login("Winner")
+                                .login(login)
                                 .password("asdfgytrewq6")
                                 .gender("female")
                                 .age(24)
-                                .screenName("Ashley_Winner")
+                                .screenName(GENERATOR.uniqueName("Ashley_Winner"))
                                 .role("user")
                                 .build()
                 }
@@ -188,137 +179,38 @@ public class TestDataProviders {
 
     @DataProvider(parallel = true)
     public static Object[][] twoUsersWithTheSameScreenName() {
+        final String screenName = GENERATOR.uniqueName("Phoenix");
         return new Object[][] {
                 {
                         Player.builder()
-                                .login("anne_clarke")
+                                .login(GENERATOR.uniqueName("anne_clarke"))
                                 .password("vbwhubvuYTVi")
                                 .gender("female")
                                 .age(31)
-                                .screenName("Phoenix")
+                                .screenName(screenName)
                                 .role("user")
                                 .build(),
                         Player.builder()
-                                .login("Will_Lloyd_Phoenix")
+                                .login(GENERATOR.uniqueName("Will_Lloyd_Phoenix"))
                                 .password("UVTYdfnuq6")
                                 .gender("male")
                                 .age(36)
-                                .screenName("Phoenix")
+                                .screenName(screenName)
                                 .role("user")
                                 .build()
                 }
         };
     }
 
-    @DataProvider(parallel = true)
-    public static Object[][] twoDifferentPlayers() {
-        return new Object[][] {
-                {
-                    Player.builder()
-                            .login(generateRandomString("oliver89"))
-                            .password("YUBbhydg54d91")
-                            .screenName(generateRandomString("Oliver_Ryd"))
-                            .gender("male")
-                            .age(34)
-                            .role("user")
-                            .build(),
-                        Player.builder()
-                                .login(generateRandomString("james_frost"))
-                                .password("nvbui4u74")
-                                .screenName(generateRandomString("James Frost"))
-                                .gender("male")
-                                .age(37)
-                                .role("user")
-                                .build()
-                },
-                {
-                        Player.builder()
-                                .login(generateRandomString("HelenaJ"))
-                                .password("bfur728ffbul")
-                                .screenName(generateRandomString("Helena_Jones"))
-                                .gender("female")
-                                .age(25)
-                                .role("admin")
-                                .build(),
-                        Player.builder()
-                                .login(generateRandomString("emilia_the_player"))
-                                .password("vn43n8G&GFf")
-                                .screenName(generateRandomString("Emilia_Holmes"))
-                                .gender("female")
-                                .age(33)
-                                .role("admin")
-                                .build()
-                }
-        };
-    }
-
-    @DataProvider(parallel = true)
-    public static Object[][] oneUser() {
-        return new Object[][] {
-                {
-                        Player.builder()
-                                .login(generateRandomString("richard_bloom"))
-                                .screenName(generateRandomString("Richard_Bloom_Jr"))
-                                .password("bcry4748ch")
-                                .age(34)
-                                .gender("male")
-                                .role("user")
-                                .build()
-                }
-        };
-    }
-
-    @DataProvider(parallel = true)
-    public static Object[][] userThenAdminPlayers() {
-        return new Object[][] {
-                {
-                    Player.builder()
-                            .login(generateRandomString("john_doe"))
-                            .screenName(generateRandomString("John Doe"))
-                            .password("vbervy3747bvvevn")
-                            .age(32)
-                            .gender("male")
-                            .role("user")
-                            .build()
-                },
-                {
-                        Player.builder()
-                                .login(generateRandomString("olivia_willson"))
-                                .screenName(generateRandomString("Olivia_W"))
-                                .password("bu3r4buf34")
-                                .age(29)
-                                .gender("female")
-                                .role("admin")
-                                .build()
-                }
-        };
-    }
-
-    @DataProvider(parallel = true)
-    public static Object[][] oneAdmin() {
-        return new Object[][] {
-                {
-                        Player.builder()
-                                .login(generateRandomString("super_admin"))
-                                .password("BBUd6426fg28")
-                                .screenName(generateRandomString("SuperAdmin"))
-                                .role("admin")
-                                .gender("male")
-                                .age(40)
-                                .build()
-                }
-        };
-    }
-
     @DataProvider(parallel = true)
     public static Object[][] customSupervisor() {
         return new Object[][] {
                 {
                         Player.builder()
-                                .screenName(generateRandomString("Supervisor_sister"))
+                                .screenName(GENERATOR.uniqueName("Supervisor_sister"))
                                 .age(34)
                                 .gender("female")
-                                .login(generateRandomString("anotherSupervisor"))
+                                .login(GENERATOR.uniqueName("anotherSupervisor"))
                                 .password("QwertY987")
                                 .role("supervisor")
                                 .build()
@@ -331,68 +223,40 @@ public class TestDataProviders {
         return new Object[][] {
                 {
                     Player.builder()
-                            .login(generateRandomString("chrome_user"))
+                            .login(GENERATOR.uniqueName("chrome_user"))
                             .password("vtde2fd")
-                            .screenName(generateRandomString("Lucky_Player"))
+                            .screenName(GENERATOR.uniqueName("Lucky_Player"))
                             .age(30)
                             .gender("female")
                             .role("user")
                             .build(),
                         Player.builder()
-                                .screenName(generateRandomString("SuperSTAR"))
+                                .screenName(GENERATOR.uniqueName("SuperSTAR"))
                                 .age(30)
                                 .gender("female")
-                                .login(generateRandomString("StarSupervisor"))
+                                .login(GENERATOR.uniqueName("StarSupervisor"))
                                 .password("Byde2gd74")
                                 .role("supervisor")
                                 .build()
                 },
                 {
                         Player.builder()
-                                .login(generateRandomString("unknown_user"))
+                                .login(GENERATOR.uniqueName("unknown_user"))
                                 .password("VEvnji5u")
-                                .screenName(generateRandomString("UNKNOWN"))
+                                .screenName(GENERATOR.uniqueName("UNKNOWN"))
                                 .age(35)
                                 .gender("male")
                                 .role("user")
                                 .build(),
                         Player.builder()
-                                .screenName(generateRandomString("molly_cooper"))
+                                .screenName(GENERATOR.uniqueName("molly_cooper"))
                                 .age(26)
                                 .gender("female")
-                                .login(generateRandomString("SweetMolly"))
+                                .login(GENERATOR.uniqueName("SweetMolly"))
                                 .password("vn3igu5")
                                 .role("admin")
                                 .build()
                 }
         };
     }
-
-    @DataProvider(parallel = true)
-    public static Object[][] userAndAdmin() {
-        return new Object[][] {
-                {
-                        Player.builder()
-                                .login(generateRandomString("eric_user"))
-                                .password("VEvnji5u")
-                                .screenName(generateRandomString("EricAnders"))
-                                .age(32)
-                                .gender("male")
-                                .role("user")
-                                .build(),
-                        Player.builder()
-                                .screenName(generateRandomString("JillEpic"))
-                                .age(28)
-                                .gender("female")
-                                .login(generateRandomString("jillian_epic_girl"))
-                                .password("vn3igu5")
-                                .role("admin")
-                                .build()
-                }
-        };
-    }
-
-    private static String generateRandomString(final String substring) {
-        return String.format("%s_%s", substring, RandomStringUtils.randomAlphabetic(7));
-    }
 }
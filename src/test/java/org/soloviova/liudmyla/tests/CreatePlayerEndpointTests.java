@@ -6,7 +6,11 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.restassured.http.ContentType;
 import lombok.val;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.UsesResources;
 import org.soloviova.liudmyla.entities.Player;
+import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.soloviova.liudmyla.metrics.LatencyBudget;
 import org.soloviova.liudmyla.testdata.TestDataProviders;
 import org.testng.annotations.Test;
 
@@ -22,6 +26,9 @@ import static org.testng.Assert.assertEquals;
  * @author Liudmyla Soloviova
  */
 @Feature("Create Player endpoint tests at GET /player/create/{editor}")
+@LatencyBudget(endpoint = PlayerControllerHttpClient.CREATE_PLAYER_PATH, p95Millis = 2000)
+@LatencyBudget(endpoint = PlayerControllerHttpClient.GET_ALL_PLAYERS_PATH, p95Millis = 3000)
+@UsesResources(reads = SharedResource.TEST_ADMIN)
 public class CreatePlayerEndpointTests extends PlayerTestBase {
 
     @Severity(SeverityLevel.NORMAL)
@@ -132,7 +139,7 @@ public class CreatePlayerEndpointTests extends PlayerTestBase {
                 .then()
                 .statusCode(403);
 
-        final Player player1AfterCreationOfPlayer2 = httpClient.getPlayerByIdSuppressRequestException(firstPlayerId);
+        final Player player1AfterCreationOfPlayer2 = httpClient.getPlayerCheckedAgainstShadowModel(firstPlayerId);
         assertEquals(player1AfterCreationOfPlayer2, createdPlayer1, "Player 1 should not have been changed");
     }
 
@@ -156,7 +163,8 @@ public class CreatePlayerEndpointTests extends PlayerTestBase {
                 .statusCode(403);
         checkIfPlayerIsAvailableInAllPlayersList(player2.getLogin(), false);
 
-        final Player firstPlayerAfterSecondPlayerCreation = httpClient.getPlayerByIdSuppressRequestException(firstPlayerId);
+        final Player firstPlayerAfterSecondPlayerCreation =
+                httpClient.getPlayerCheckedAgainstShadowModel(firstPlayerId);
         assertEquals(firstPlayerAfterSecondPlayerCreation, firstPlayerAfterCreation,
                 "Player 1 should not have been changed");
     }
@@ -5,7 +5,10 @@ import io.qameta.allure.Feature;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.restassured.http.ContentType;
+import lombok.Cleanup;
 import lombok.val;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.UsesResources;
 import org.soloviova.liudmyla.entities.Player;
 import org.soloviova.liudmyla.testdata.TestDataProviders;
 import org.testng.annotations.Test;
@@ -21,6 +24,7 @@ import static org.hamcrest.Matchers.notNullValue;
  * @author Liudmyla Soloviova
  */
 @Feature("Delete Player endpoint tests at DELETE /player/delete/{editor}")
+@UsesResources(reads = SharedResource.TEST_ADMIN)
 public class DeletePlayerEndpointTests extends PlayerTestBase {
 
     @Description("Test that the supervisor can delete any admin and any user, an admin can delete any user.")
@@ -48,61 +52,40 @@ public class DeletePlayerEndpointTests extends PlayerTestBase {
 
     @Severity(SeverityLevel.CRITICAL)
     @Description("Test that one user cannot delete another user, and one admin cannot delete another admin.")
-    @Test(dataProvider = "twoDifferentPlayers", dataProviderClass = TestDataProviders.class,
+    @Test(dataProvider = "userAndAdminRoles", dataProviderClass = TestDataProviders.class,
     description = "Check that one user can't delete another user and one admin can't delete another admin.")
-    public void testThatOnePlayerWithUserOrAdminRoleCannotDeleteAnotherPlayer(final Player player1,
-                                                                              final Player player2) {
-        final Player createdPlayer1 = createPlayerSafely(player1, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class);
-        final Integer firstPlayerId = createdPlayer1.getId();
-        checkIfPlayerIsAvailableInAllPlayersList(firstPlayerId, true);
+    public void testThatOnePlayerWithUserOrAdminRoleCannotDeleteAnotherPlayer(final String role) {
+        @Cleanup val player1 = fixturePool.lease(role);
+        @Cleanup val player2 = fixturePool.lease(role);
+        final Integer firstPlayerId = player1.getId();
 
-        final Player createdPlayer2 = createPlayerSafely(player2, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class);
-        final Integer secondPlayerId = createdPlayer2.getId();
-        checkIfPlayerIsAvailableInAllPlayersList(secondPlayerId, true);
-
-        final String secondPlayerLogin = getPlayerLogin(secondPlayerId);
+        final String secondPlayerLogin = getPlayerLogin(player2.getId());
         deletePlayerSafely(firstPlayerId, secondPlayerLogin)
                 .then()
                 .statusCode(403);
 
         checkIfPlayerIsAvailableInAllPlayersList(firstPlayerId, true);
+        player1.returnToPool();
+        player2.returnToPool();
     }
 
     @Severity(SeverityLevel.CRITICAL)
     @Description("Test that an admin cannot delete be deleted by him/herself.")
-    @Test(dataProvider = "oneAdmin", dataProviderClass = TestDataProviders.class,
-            description = "Check that an admin cannot delete himself.")
-    public void testThatAdminCannotDeleteHimself(final Player customAdmin) {
-        val customAdminId = createPlayerSafely(customAdmin, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(customAdminId, true);
+    @Test(description = "Check that an admin cannot delete himself.")
+    public void testThatAdminCannotDeleteHimself() {
+        @Cleanup val customAdmin = fixturePool.lease("admin");
+        val customAdminId = customAdmin.getId();
 
         deletePlayerSafely(customAdminId, customAdmin.getLogin())
                 .then()
                 .statusCode(403);
         checkIfPlayerIsAvailableInAllPlayersList(customAdminId, true);
+        customAdmin.returnToPool();
     }
 
     @Description("Test that the supervisor cannot be deleted by any admin.")
     @Test(description = "Check that the supervisor cannot be deleted by admins.")
+    @UsesResources(reads = SharedResource.SUPERVISOR)
     public void testThatSupervisorCannotBeDeletedByAdmin() {
         httpClient.deletePlayer(supervisorId, adminLogin)
                 .then()
@@ -113,6 +96,7 @@ public class DeletePlayerEndpointTests extends PlayerTestBase {
 
     @Description("Test that the supervisor cannot be deleted by himself.")
     @Test(description = "Check that the supervisor cannot be deleted by himself.")
+    @UsesResources(reads = SharedResource.SUPERVISOR)
     public void testThatSupervisorCannotBeDeletedByHimself() {
         httpClient.deletePlayer(supervisorId, supervisorLogin)
                 .then()
@@ -123,70 +107,39 @@ public class DeletePlayerEndpointTests extends PlayerTestBase {
 
     @Severity(SeverityLevel.CRITICAL)
     @Description("Test that a user cannot be deleted by him/herself.")
-    @Test(dataProvider = "oneUser", dataProviderClass = TestDataProviders.class,
-    description = "Check that a user cannot delete himself")
-    public void testThatUserCannotDeleteHimself(final Player user) {
-        val userId = createPlayerSafely(user, adminLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(userId, true);
+    @Test(description = "Check that a user cannot delete himself")
+    public void testThatUserCannotDeleteHimself() {
+        @Cleanup val user = fixturePool.lease("user");
+        val userId = user.getId();
 
         deletePlayerSafely(userId, user.getLogin())
                 .then()
                 .statusCode(403);
         checkIfPlayerIsAvailableInAllPlayersList(userId, true);
+        user.returnToPool();
     }
 
     @Severity(SeverityLevel.CRITICAL)
     @Description("Test that a user cannot delete an admin.")
-    @Test(dataProvider = "userAndAdmin", dataProviderClass = TestDataProviders.class,
-    description = "Check that a user cannot delete admins.")
-    public void testThatUserCannotDeleteAdmin(final Player user,
-                                              final Player admin) {
-        val userId = createPlayerSafely(user, adminLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(userId, true);
-
-        val adminId = createPlayerSafely(admin, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(adminId, true);
+    @Test(description = "Check that a user cannot delete admins.")
+    public void testThatUserCannotDeleteAdmin() {
+        @Cleanup val user = fixturePool.lease("user");
+        @Cleanup val admin = fixturePool.lease("admin");
+        val adminId = admin.getId();
 
         deletePlayerSafely(adminId, user.getLogin())
                 .then()
                 .statusCode(403);
         checkIfPlayerIsAvailableInAllPlayersList(adminId, true);
+        user.returnToPool();
+        admin.returnToPool();
     }
 
     @Description("Test that a user cannot delete the supervisor.")
-    @Test(dataProvider = "oneUser", dataProviderClass = TestDataProviders.class,
-    description = "Check that a user cannot delete the supervisor.")
-    public void testThatUserCannotDeleteSupervisor(final Player user) {
-        val userId = createPlayerSafely(user, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(userId, true);
+    @Test(description = "Check that a user cannot delete the supervisor.")
+    @UsesResources(reads = SharedResource.SUPERVISOR)
+    public void testThatUserCannotDeleteSupervisor() {
+        @Cleanup val user = fixturePool.lease("user");
 
         val supervisorId = getPlayerIdByLogin(supervisorLogin);
         deletePlayerSafely(supervisorId, user.getLogin())
@@ -194,5 +147,6 @@ public class DeletePlayerEndpointTests extends PlayerTestBase {
                 .statusCode(403);
 
         checkIfPlayerIsAvailableInAllPlayersList(supervisorId, true);
+        user.returnToPool();
     }
 }
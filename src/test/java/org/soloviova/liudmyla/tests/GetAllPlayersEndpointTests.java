@@ -5,17 +5,20 @@ import io.qameta.allure.Feature;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.UsesResources;
 import org.soloviova.liudmyla.entities.PlayerItem;
+import org.soloviova.liudmyla.httpclients.ExchangeLogger;
 import org.soloviova.liudmyla.testdata.TestDataProviders;
 import org.testng.annotations.Test;
 
 import java.util.List;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.in;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient.BASE_URL;
+import static org.soloviova.liudmyla.httpclients.PlayerHttpTransport.given;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -29,6 +32,7 @@ public class GetAllPlayersEndpointTests extends PlayerTestBase {
 
     @Description("Positive test for getAllPlayers endpoint. Checks that the request returns non-empty list of all players.")
     @Test(description = "Check that getAllPlayers endpoint returns non-empty list of players")
+    @UsesResources(reads = SharedResource.PLAYER_LIST)
     public void executeGetAllPlayersRequestAndCheckExistingPlayersListIsReturned() {
         final Response response = httpClient.getAllPlayers()
                 .then()
@@ -53,7 +57,7 @@ public class GetAllPlayersEndpointTests extends PlayerTestBase {
         log.info("Executing GET request to {}", endpoint);
 
         final Response response = given().when().get(endpoint);
-        log.info("Obtained response:\n{}", response.asPrettyString());
+        log.info("Obtained response:\n{}", ExchangeLogger.body(response));
 
         response.then()
                 .assertThat()
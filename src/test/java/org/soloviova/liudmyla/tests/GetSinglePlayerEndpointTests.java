@@ -6,6 +6,8 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.restassured.http.ContentType;
 import lombok.val;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.UsesResources;
 import org.soloviova.liudmyla.entities.Player;
 import org.soloviova.liudmyla.testdata.TestDataProviders;
 import org.testng.annotations.Test;
@@ -25,6 +27,7 @@ public class GetSinglePlayerEndpointTests extends PlayerTestBase {
     @Description("Test that an existing Player from all players list can be found by his/her playerId.")
     @Test(description = "Check that a player with id from the common list can be found by its id and returned" +
             "as a single entity")
+    @UsesResources(reads = {SharedResource.SUPERVISOR, SharedResource.PLAYER_LIST})
     public void getExistingPlayerByIdAndVerifyItMatchesPlayerItemFromTheList() {
         val allPlayerItems = httpClient.getAllPlayersSuppressRequestException();
         assertTrue(allPlayerItems.size() > 0);
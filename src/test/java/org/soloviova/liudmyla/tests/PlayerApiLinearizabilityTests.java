@@ -0,0 +1,78 @@
+package org.soloviova.liudmyla.tests;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.soloviova.liudmyla.linearizability.HistoryRecorder;
+import org.soloviova.liudmyla.linearizability.LinearizabilityChecker;
+import org.soloviova.liudmyla.linearizability.LinearizabilityReport;
+import org.soloviova.liudmyla.linearizability.LinearizabilityResult;
+import org.soloviova.liudmyla.linearizability.PlayerRegisterModel;
+import org.soloviova.liudmyla.linearizability.PlayerStressWorkload;
+import org.soloviova.liudmyla.testdata.PlayerGenerator;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Stress test of the Player controller: concurrent create, update, delete and get requests are recorded
+ * and the history is checked for linearizability. It runs in its own suite:
+ * {@code mvn test -Dtestng.file=testng-linearizability.xml}
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+@Feature("Linearizability of concurrent requests to the Player controller")
+public class PlayerApiLinearizabilityTests extends PlayerTestBase {
+
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Test that concurrent create, update, delete and get requests behave as if they were executed "
+            + "one at a time: no lost updates, stale reads or duplicate logins and screen names.")
+    @Test(description = "Check that concurrent requests on players are linearizable")
+    public void testThatConcurrentRequestsOnPlayersAreLinearizable() {
+        final HistoryRecorder history = PlayerStressWorkload
+                .fromConfiguration(httpClient, supervisorLogin, CREATED_BY_TESTS)
+                .run();
+        final LinearizabilityReport report = new LinearizabilityChecker<>(new PlayerRegisterModel())
+                .check(history.getHistory());
+        log.info("Linearizability check: {}", report.summary());
+        reportHistory(history);
+
+        report.getResultsWith(LinearizabilityResult.Verdict.UNKNOWN)
+                .forEach(result -> log.warn("Linearizability of {} is unknown: the search was stopped after {} states",
+                        result.getPartition(), result.getExploredStates()));
+        final String violations = report.getResultsWith(LinearizabilityResult.Verdict.NOT_LINEARIZABLE)
+                .stream()
+                .map(result -> String.format("%s: operation %s cannot be linearized", result.getPartition(),
+                        history.describe(result.getFailedOperation())))
+                .collect(Collectors.joining("\n"));
+        assertTrue(report.isLinearizable(), "History of concurrent requests is not linearizable:\n" + violations);
+    }
+
+    /**
+     * Writes the history to players.linearizability.history.dir (target/linearizability by default)
+     * and attaches it to the Allure report
+     */
+    private void reportHistory(final HistoryRecorder history) {
+        final String historyText = history.historyText();
+        Allure.addAttachment("History of concurrent requests", "text/plain", historyText, ".txt");
+        final Path historyFile = Paths.get(System.getProperty("players.linearizability.history.dir",
+                "target/linearizability")).resolve(PlayerGenerator.getInstance().getRunPrefix() + ".history");
+        try {
+            Files.createDirectories(historyFile.getParent());
+            Files.writeString(historyFile, historyText);
+            log.info("History of concurrent requests is written to {}", historyFile.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("History of concurrent requests cannot be written to {}: {}", historyFile, e.getMessage());
+        }
+    }
+}
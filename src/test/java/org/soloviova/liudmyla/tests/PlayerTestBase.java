@@ -1,22 +1,43 @@
 package org.soloviova.liudmyla.tests;
 
+import io.qameta.allure.Allure;
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.soloviova.liudmyla.cleanup.CleanupReport;
+import org.soloviova.liudmyla.cleanup.PlayerCleaner;
+import org.soloviova.liudmyla.concurrency.ConcurrencyLimit;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.SharedResourceLocks;
+import org.soloviova.liudmyla.concurrency.UsesResources;
 import org.soloviova.liudmyla.entities.Player;
 import org.soloviova.liudmyla.entities.PlayerItem;
+import org.soloviova.liudmyla.fixtures.PlayerFixturePool;
+import org.soloviova.liudmyla.httpclients.Cassette;
 import org.soloviova.liudmyla.httpclients.PlayerControllerHttpClient;
+import org.soloviova.liudmyla.httpclients.PlayerHttpTransport;
+import org.soloviova.liudmyla.httpclients.PlayerShadowModel;
+import org.soloviova.liudmyla.metrics.EndpointLatencies;
+import org.soloviova.liudmyla.metrics.LatencyRecorder;
+import org.soloviova.liudmyla.sharding.Shard;
+import org.soloviova.liudmyla.standin.PlayerControllerStandInServer;
+import org.soloviova.liudmyla.testdata.PlayerGenerator;
+import org.soloviova.liudmyla.waiters.VisibilityWaiter;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
-import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * This is a test base class for Player Controller. It contains some common methods for verifications and
@@ -27,9 +48,10 @@ import static org.testng.Assert.assertEquals;
 @Slf4j
 public abstract class PlayerTestBase {
     public static final String supervisorLogin = "supervisor";
-    public static final String adminLogin = "testAdmin1";
+    public static final String adminLogin = shardScoped("testAdmin1", "_");
     public static final PlayerControllerHttpClient httpClient = PlayerControllerHttpClient.getInstance();
     public static final Integer supervisorId = 1;
+    protected static final VisibilityWaiter visibilityWaiter = new VisibilityWaiter();
     private final Player defaultSupervisorCondition = Player.builder()
             .id(1)
             .login(supervisorLogin)
@@ -38,30 +60,60 @@ public abstract class PlayerTestBase {
             .role("supervisor")
             .gender("male")
             .build();
-    private static final String CREATED_BY_TESTS = " [CREATED_BY_TESTS]";
+    protected static final String CREATED_BY_TESTS = PlayerGenerator.getInstance().getCreatedPlayersMarker();
+    protected static final PlayerFixturePool fixturePool = new PlayerFixturePool(httpClient,
+            PlayerGenerator.getInstance(), CREATED_BY_TESTS, supervisorLogin);
 
     @BeforeSuite(alwaysRun = true)
-    public synchronized void setupBeforeAllTests() {
+    @UsesResources(writes = {SharedResource.TEST_ADMIN, SharedResource.PLAYER_LIST})
+    public void setupBeforeAllTests() {
+        if (Shard.getInstance().isSharded()) {
+            log.info("Executing {} with test admin {} and marker of created players '{}'", Shard.getInstance(),
+                    adminLogin, CREATED_BY_TESTS.trim());
+        }
+        if (PlayerControllerStandInServer.isEnabled()) {
+            PlayerControllerStandInServer.start();
+        }
         RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
         createTestAdminIfNotExists();
+        fixturePool.provision();
     }
 
     @AfterSuite(alwaysRun = true)
-    public synchronized void cleanUpAfterTests() {
+    @UsesResources(writes = {SharedResource.SUPERVISOR, SharedResource.TEST_ADMIN, SharedResource.PLAYER_LIST})
+    public void cleanUpAfterTests() {
+        fixturePool.close();
         deleteCreatedPlayers();
         deleteTestAdmin();
         restoreSupervisorData();
+        log.info("Player locks wait statistics: {}", httpClient.getPlayerLocks().getWaitStatistics());
+        log.info("Shared resource locks wait statistics: {}", SharedResourceLocks.getInstance().getWaitStatistics());
+        log.info("HTTP connection pool statistics: {}", PlayerHttpTransport.getPoolStatistics());
+        visibilityWaiter.getConvergenceStatistics()
+                .forEach(statistics -> log.info("Visibility convergence statistics: {}", statistics));
+        log.info("All players snapshot statistics: {}", httpClient.getAllPlayersSnapshotStatistics());
+        if (!Cassette.getInstance().getStatistics().isEmpty()) {
+            log.info("Cassette statistics: {}", Cassette.getInstance().getStatistics());
+        }
+        if (httpClient.getBackends().getBaseUrls().size() > 1) {
+            log.info("Backend instances statistics: {}", httpClient.getBackends().getStatistics());
+        }
+        reportSuiteLatencies();
+        reportConcurrencyLimitHistory();
+        reportShadowModelViolations();
+        PlayerControllerStandInServer.stop();
     }
 
     /**
      * Creates a new Player in the app and adds its id to the list for deletion after test
-     * if the Player was created successfully
+     * if the Player was created successfully. Visibility of the Player in all players list is checked
+     * for a sample of creations if {@link PlayerShadowModel} is enabled.
      *
      * @param player {@link Player} entity to create
      * @param editor login of a user who is going to create the new player
      * @return {@link Response} obtained after execution of the HTTP request
      */
-    protected synchronized Response createPlayerSafely(final Player player, final String editor) {
+    protected Response createPlayerSafely(final Player player, final String editor) {
         player.setScreenName(player.getScreenName() + CREATED_BY_TESTS);
 
         log.info("Safe creation of Player: {}", player);
@@ -69,7 +121,7 @@ public abstract class PlayerTestBase {
         final Response response = httpClient.createPlayer(player, editor);
         val playerLogin = player.getLogin();
 
-        if (isStatusCodeOk(response)) {
+        if (isStatusCodeOk(response) && httpClient.getShadowModel().shouldVerify(playerLogin)) {
             checkIfPlayerIsAvailableInAllPlayersList(playerLogin, true);
         }
 
@@ -78,18 +130,19 @@ public abstract class PlayerTestBase {
 
     /**
      * Deletes the Player with the given id and removes its id from the list for test data clean up
-     * if the deletion was successful.
+     * if the deletion was successful. Absence of the Player from all players list is checked
+     * for a sample of deletions if {@link PlayerShadowModel} is enabled.
      *
      * @param playerId of the Player to delete
      * @param editor   login of a user who is going to delete the player
      * @return {@link Response} obtained after execution of the HTTP request
      */
-    protected synchronized Response deletePlayerSafely(final Integer playerId, final String editor) {
+    protected Response deletePlayerSafely(final Integer playerId, final String editor) {
         log.info("Performing safe delete of Player {}", playerId);
 
         Response response = httpClient.deletePlayer(playerId, editor);
 
-        if (isStatusCodeOk(response)) {
+        if (isStatusCodeOk(response) && httpClient.getShadowModel().shouldVerify(playerId)) {
             checkIfPlayerIsAvailableInAllPlayersList(playerId, false);
         }
 
@@ -115,17 +168,14 @@ public abstract class PlayerTestBase {
      * @return id of the Player
      */
     protected Integer getPlayerIdByLogin(final String playerLogin) {
-        val player = httpClient.getAllPlayersSuppressRequestException()
-                .stream()
-                .filter(playerItem -> httpClient.getPlayerByIdSuppressRequestException(playerItem.getId())
-                        .getLogin().equals(playerLogin))
-                .findFirst()
+        return httpClient.findPlayerIdByLogin(playerLogin)
                 .orElseThrow(() -> new AssertionError(format("Player with login [%s] was not found", playerLogin)));
-        return player.getId();
     }
 
     /**
-     * Checks whether specified Player is available in all players list by id and compares the result with expected one
+     * Checks whether specified Player is available in all players list by id and compares the result with expected one.
+     * The check is repeated by {@link VisibilityWaiter} until the expected result is obtained
+     * or the deadline is reached.
      *
      * @param playerId          id of the Player which is being checked
      * @param shouldBeAvailable boolean parameter which indicates whether the specified player is expected to be
@@ -133,11 +183,17 @@ public abstract class PlayerTestBase {
      */
     protected void checkIfPlayerIsAvailableInAllPlayersList(final Integer playerId,
                                                             final boolean shouldBeAvailable) {
-        assertEquals(createdPlayerIsFoundAmongTheListOfAllPlayerItems(playerId), shouldBeAvailable);
+        final boolean isExpectedStateReached = visibilityWaiter.await(PlayerControllerHttpClient.GET_ALL_PLAYERS_PATH,
+                () -> isAvailabilityAsExpected(createdPlayerIsFoundAmongTheListOfAllPlayerItems(playerId),
+                        shouldBeAvailable));
+        assertTrue(isExpectedStateReached, format("Player with id %s is expected to be %s all players list",
+                playerId, shouldBeAvailable ? "in" : "absent from"));
     }
 
     /**
-     * Checks whether specified Player is available in all players list by id and compares the result with expected one
+     * Checks whether specified Player is available in all players list by login and compares the result
+     * with expected one. The check is repeated by {@link VisibilityWaiter} until the expected result is obtained
+     * or the deadline is reached.
      *
      * @param playerLogin       login of the Player which is being checked
      * @param shouldBeAvailable boolean parameter which indicates whether the specified player is expected to be
@@ -145,51 +201,78 @@ public abstract class PlayerTestBase {
      */
     protected void checkIfPlayerIsAvailableInAllPlayersList(final String playerLogin,
                                                             final boolean shouldBeAvailable) {
-        assertEquals(createdPlayerIsFoundAmongTheListOfAllPlayerItems(playerLogin), shouldBeAvailable);
+        final boolean isExpectedStateReached = visibilityWaiter.await(PlayerControllerHttpClient.GET_ALL_PLAYERS_PATH,
+                () -> isAvailabilityAsExpected(
+                        createdPlayerIsFoundAmongTheListOfAllPlayerItems(playerLogin, shouldBeAvailable),
+                        shouldBeAvailable));
+        assertTrue(isExpectedStateReached, format("Player with login %s is expected to be %s all players list",
+                playerLogin, shouldBeAvailable ? "in" : "absent from"));
     }
 
     /**
-     * Checks whether specified Player is available in all players list by id
+     * Checks whether specified Player is available in all players list by id.
+     * The shared snapshot of the list is searched, so there is no request if no player was changed
+     * since it was obtained.
      *
      * @param playerId - id of the Player which is being checked
      * @return {@link Boolean} result of the check
      */
     private boolean createdPlayerIsFoundAmongTheListOfAllPlayerItems(final Integer playerId) {
         log.info("Checking if Player with id {} can be found among the list of all PlayerItems", playerId);
-        Optional<PlayerItem> isPlayerItemFound = httpClient.getAllPlayersSuppressRequestException()
-                .stream()
-                .filter(playerItem -> Objects.equals(playerItem.getId(), playerId))
-                .findAny();
-        return isPlayerItemFound.isPresent();
+        return httpClient.findPlayerItemSuppressRequestException(
+                playerItem -> Objects.equals(playerItem.getId(), playerId)).isPresent();
     }
 
     /**
-     * Checks whether specified Player is available in all players list by login
+     * Compares availability of a Player with expected one. If they differ, the snapshot of all players list
+     * may be stale, so it is dropped and the next check requests the list.
+     */
+    private boolean isAvailabilityAsExpected(final boolean isAvailable, final boolean shouldBeAvailable) {
+        if (isAvailable != shouldBeAvailable) {
+            httpClient.invalidateAllPlayersSnapshot();
+        }
+        return isAvailable == shouldBeAvailable;
+    }
+
+    /**
+     * Checks whether specified Player is available in all players list by login.
+     * Player's id is taken from the login index of {@link PlayerControllerHttpClient}. A login which is expected
+     * to be absent is not looked up by rebuilding the index: players created through the client are indexed
+     * from its responses, so a login which is not indexed is not in the list, and an indexed one is checked
+     * in the list by id.
      *
-     * @param playerLogin - login of the Player which is being checked
+     * @param playerLogin       - login of the Player which is being checked
+     * @param shouldBeAvailable - whether the Player is expected to be in the list
      * @return {@link Boolean} result of the check
      */
-    private boolean createdPlayerIsFoundAmongTheListOfAllPlayerItems(final String playerLogin) {
+    private boolean createdPlayerIsFoundAmongTheListOfAllPlayerItems(final String playerLogin,
+                                                                     final boolean shouldBeAvailable) {
         log.info("Checking if Player with login {} can be found among the list of all PlayerItems", playerLogin);
-        Optional<PlayerItem> isPlayerItemFound = httpClient.getAllPlayersSuppressRequestException()
-                .stream()
-                .filter(playerItem -> getPlayerLogin(playerItem.getId()).equals(playerLogin))
-                .findAny();
-        return isPlayerItemFound.isPresent();
+        final Optional<Integer> playerId = shouldBeAvailable
+                ? httpClient.findPlayerIdByLogin(playerLogin)
+                : httpClient.getIndexedPlayerIdByLogin(playerLogin);
+        return playerId.map(this::createdPlayerIsFoundAmongTheListOfAllPlayerItems).orElse(false);
     }
 
     /**
-     * Deletes only those Players that were created in tests
+     * Deletes only those Players that were created in tests. Deletions are executed in parallel
+     * and confirmed by one request of all players list.
      */
-    private synchronized void deleteCreatedPlayers() {
-        final List<PlayerItem> playersToDelete = httpClient.getAllPlayersSuppressRequestException()
+    private void deleteCreatedPlayers() {
+        final List<Integer> playerIdsToDelete = httpClient.getAllPlayersSuppressRequestException()
                 .stream()
                 .filter(playerItem -> playerItem.getScreenName().contains(CREATED_BY_TESTS))
+                .map(PlayerItem::getId)
                 .collect(Collectors.toList());
 
-        log.info("Deleting created players during testing: {}", playersToDelete);
+        log.info("Deleting created players during testing: {}", playerIdsToDelete);
 
-        playersToDelete.forEach(playerItem -> deletePlayerSafely(playerItem.getId(), supervisorLogin));
+        final CleanupReport report = new PlayerCleaner(httpClient).deletePlayers(playerIdsToDelete, supervisorLogin);
+        log.info("Deleted {} of {} players in {} ms ({} deletions per second)", report.getDeleted(),
+                report.getRequested(), report.getElapsedMillis(), format("%.1f", report.getDeletionsPerSecond()));
+        if (!report.isSuccessful()) {
+            log.error("Players with the following ids were not deleted: {}", report.getFailedIds());
+        }
     }
 
     /**
@@ -206,40 +289,118 @@ public abstract class PlayerTestBase {
     /**
      * Creates custom admin to be used in tests
      */
-    private synchronized void createTestAdminIfNotExists() {
-        if (!doesTestAdminExist()) {
-            final Player adminToCreate = Player.builder()
-                    .role("admin")
-                    .screenName("Test_Admin_1")
-                    .login(adminLogin)
-                    .password("vbrhei40fn8")
-                    .gender("female")
-                    .age(27)
-                    .build();
-
-            log.info("Creating admin user for tests: {}", adminToCreate);
-            httpClient.createPlayer(adminToCreate, supervisorLogin);
+    private void createTestAdminIfNotExists() {
+        httpClient.getPlayerLocks().withLock(adminLogin, () -> {
+            if (!doesTestAdminExist()) {
+                final Player adminToCreate = Player.builder()
+                        .role("admin")
+                        .screenName(shardScoped("Test_Admin_1", "_"))
+                        .login(adminLogin)
+                        .password("vbrhei40fn8")
+                        .gender("female")
+                        .age(27)
+                        .build();
+
+                log.info("Creating admin user for tests: {}", adminToCreate);
+                httpClient.createPlayer(adminToCreate, supervisorLogin);
+            }
+        });
+    }
+
+    /**
+     * Restores fields values for the supervisor in case if any data was changed during testing.
+     * If the suite is sharded, only the first shard, which executes all tests using the supervisor, restores it.
+     */
+    private void restoreSupervisorData() {
+        if (!Shard.getInstance().isFirst()) {
+            return;
         }
+        httpClient.getPlayerLocks().withLock(supervisorId, () -> {
+            val supervisorAfterTests = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
+            if (!supervisorAfterTests.equals(defaultSupervisorCondition)) {
+                httpClient.updatePlayer(supervisorId, supervisorLogin, defaultSupervisorCondition);
+            }
+        });
     }
 
     /**
-     * Restores fields values for the supervisor in case if any data was changed during testing
+     * Logs latency summary of all requests sent during the suite and attaches it to the Allure report
      */
-    private synchronized void restoreSupervisorData() {
-        val supervisorAfterTests = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
-        if (!supervisorAfterTests.equals(defaultSupervisorCondition)) {
-            httpClient.updatePlayer(supervisorId, supervisorLogin, defaultSupervisorCondition);
+    private void reportSuiteLatencies() {
+        final EndpointLatencies suiteLatencies = LatencyRecorder.getSuiteLatencies();
+        if (!suiteLatencies.isEmpty()) {
+            final String summary = suiteLatencies.summary();
+            log.info("HTTP latency of the suite:\n{}", summary);
+            Allure.addAttachment("HTTP latency of the suite", "text/plain", summary, ".txt");
         }
     }
 
-    private synchronized void deleteTestAdmin() {
-        if(doesTestAdminExist()) {
-            val testAdminId = getPlayerIdByLogin(adminLogin);
-            httpClient.deletePlayer(testAdminId, supervisorLogin);
+    /**
+     * Writes history of the concurrency limit to players.server.permits.history.dir
+     * (target/concurrency-limit by default) and attaches it to the Allure report
+     */
+    private void reportConcurrencyLimitHistory() {
+        final ConcurrencyLimit limit = httpClient.getServerPermits().getLimit();
+        if (!limit.isAdaptive()) {
+            return;
+        }
+        final String history = limit.historyCsv();
+        log.info("Concurrency limit changed {} times, the last limit is {}", limit.getHistory().size() - 1,
+                limit.getLimit());
+        Allure.addAttachment("Concurrency limit history", "text/csv", history, ".csv");
+        final Path historyFile = Paths.get(System.getProperty("players.server.permits.history.dir",
+                "target/concurrency-limit")).resolve(PlayerGenerator.getInstance().getRunPrefix() + ".csv");
+        try {
+            Files.createDirectories(historyFile.getParent());
+            Files.writeString(historyFile, history);
+            log.info("Concurrency limit history is written to {}", historyFile.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Concurrency limit history cannot be written to {}: {}", historyFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Logs usage of the shadow model and consistency violations found by verified reads,
+     * and attaches the violations to the Allure report
+     */
+    private void reportShadowModelViolations() {
+        final PlayerShadowModel shadowModel = httpClient.getShadowModel();
+        if (!shadowModel.isEnabled()) {
+            return;
         }
+        log.info("Shadow model statistics: {}", shadowModel.getStatistics());
+        if (!shadowModel.getViolations().isEmpty()) {
+            final String violations = shadowModel.getViolations().stream()
+                    .map(Object::toString)
+                    .collect(Collectors.joining("\n"));
+            log.error("Consistency violations found by the shadow model:\n{}", violations);
+            Allure.addAttachment("Consistency violations", "text/plain", violations, ".txt");
+        }
+    }
+
+    /**
+     * If the suite is sharded, every shard of every run has its own test admin, so shards running against the same
+     * app at the same time don't use or delete the admin of each other. Created players are marked per shard
+     * by {@link PlayerGenerator#getCreatedPlayersMarker()}
+     *
+     * @param name      name shared by all shards
+     * @param separator separator of the name and the run prefix of the shard
+     * @return the name itself or the name with the run prefix of the shard
+     */
+    private static String shardScoped(final String name, final String separator) {
+        return Shard.getInstance().isSharded() ? name + separator + PlayerGenerator.getInstance().getRunPrefix() : name;
+    }
+
+    private void deleteTestAdmin() {
+        httpClient.getPlayerLocks().withLock(adminLogin, () -> {
+            if (doesTestAdminExist()) {
+                val testAdminId = getPlayerIdByLogin(adminLogin);
+                httpClient.deletePlayer(testAdminId, supervisorLogin);
+            }
+        });
     }
 
     private boolean doesTestAdminExist() {
-        return createdPlayerIsFoundAmongTheListOfAllPlayerItems(adminLogin);
+        return createdPlayerIsFoundAmongTheListOfAllPlayerItems(adminLogin, true);
     }
 }
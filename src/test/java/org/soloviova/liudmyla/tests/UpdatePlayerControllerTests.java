@@ -5,16 +5,15 @@ import io.qameta.allure.Feature;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.restassured.http.ContentType;
+import lombok.Cleanup;
 import lombok.val;
+import org.soloviova.liudmyla.concurrency.SharedResource;
+import org.soloviova.liudmyla.concurrency.UsesResources;
 import org.soloviova.liudmyla.entities.Player;
 import org.soloviova.liudmyla.testdata.TestDataProviders;
 import org.testng.annotations.Test;
 
-import java.util.List;
-
 import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.in;
-import static org.hamcrest.Matchers.notNullValue;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
 
@@ -24,27 +23,21 @@ import static org.testng.Assert.assertNotEquals;
  * @author Liudmyla Soloviova
  */
 @Feature("Update Player endpoint tests at PATCH /player/update/{editor}/{id}")
+@UsesResources(reads = SharedResource.TEST_ADMIN)
 public class UpdatePlayerControllerTests extends PlayerTestBase {
 
     @Description("Test that the supervisor can edit users and admins.")
-    @Test(dataProvider = "userThenAdminPlayers", dataProviderClass = TestDataProviders.class,
+    @Test(dataProvider = "userAndAdminRoles", dataProviderClass = TestDataProviders.class,
             description = "Check that the supervisor can edit users and admins.")
-    public void testThatSupervisorCanEditPlayerWithAdminAndUserRoles(final Player player) {
-        val playerId = createPlayerSafely(player, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(playerId, true);
+    public void testThatSupervisorCanEditPlayerWithAdminAndUserRoles(final String role) {
+        @Cleanup val lease = fixturePool.lease(role);
+        val playerId = lease.getId();
 
         val playerAfterCreation = httpClient.getPlayerByIdSuppressRequestException(playerId);
 
         val playerToUpdate = Player.builder()
                 .screenName(playerAfterCreation.getScreenName() + "_UPD")
-                .age(25)
+                .age(playerAfterCreation.getAge() == 25 ? 26 : 25)
                 .build();
         val updatedPlayer = httpClient.updatePlayer(playerId, supervisorLogin, playerToUpdate)
                 .then()
@@ -72,6 +65,7 @@ public class UpdatePlayerControllerTests extends PlayerTestBase {
 
     @Description("Test that the supervisor can update himself.")
     @Test(description = "Check that the supervisor can update himself.")
+    @UsesResources(writes = SharedResource.SUPERVISOR)
     public void testThatSupervisorCanUpdateHimself() {
         val supervisorId = getPlayerIdByLogin(supervisorLogin);
         val supervisorBeforeUpdate = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
@@ -95,18 +89,10 @@ public class UpdatePlayerControllerTests extends PlayerTestBase {
     }
 
     @Description("Test that an admin can update users.")
-    @Test(dataProvider = "oneUser", dataProviderClass = TestDataProviders.class,
-            description = "Check that an admin can update users")
-    public void testThatAdminCanUpdateUsers(final Player user) {
-        val userId = createPlayerSafely(user, adminLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(userId, true);
+    @Test(description = "Check that an admin can update users")
+    public void testThatAdminCanUpdateUsers() {
+        @Cleanup val user = fixturePool.lease("user");
+        val userId = user.getId();
 
         val userBeforeUpdate = httpClient.getPlayerByIdSuppressRequestException(userId);
         val userToUpdate = Player.builder()
@@ -130,18 +116,11 @@ public class UpdatePlayerControllerTests extends PlayerTestBase {
     }
 
     @Description("Test that an admin can update himself and a user can update himself.")
-    @Test(dataProvider = "userThenAdminPlayers", dataProviderClass = TestDataProviders.class,
+    @Test(dataProvider = "userAndAdminRoles", dataProviderClass = TestDataProviders.class,
             description = "Check that an admin can update himself and a user can update himself.")
-    public void testThatAdminCanUpdateHimselfAndUserCanUpdateHimself(final Player player) {
-        val playerId = createPlayerSafely(player, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(playerId, true);
+    public void testThatAdminCanUpdateHimselfAndUserCanUpdateHimself(final String role) {
+        @Cleanup val lease = fixturePool.lease(role);
+        val playerId = lease.getId();
 
         val playerAfterCreation = httpClient.getPlayerByIdSuppressRequestException(playerId);
         val playerToUpdate = Player.builder()
@@ -171,50 +150,36 @@ public class UpdatePlayerControllerTests extends PlayerTestBase {
         assertEquals(updatedPlayerResponse.getRole(), playerAfterCreation.getRole(),
                 "Player's role in response shouldn't have been changed");
 
-        val playerAfterUpdate = httpClient.getPlayerByIdSuppressRequestException(playerId);
+        val playerAfterUpdate = httpClient.getPlayerCheckedAgainstShadowModel(playerId);
         assertNotEquals(playerAfterUpdate, playerAfterCreation, "Player was not updated");
     }
 
     @Severity(SeverityLevel.CRITICAL)
     @Description("Test that a user cannot update other users and an admin cannot update other admins.")
-    @Test(dataProvider = "twoDifferentPlayers", dataProviderClass = TestDataProviders.class,
+    @Test(dataProvider = "userAndAdminRoles", dataProviderClass = TestDataProviders.class,
             description = "Check that a user cannot update other users and an admin cannot update other admins.")
-    public void testThatUserCannotUpdateOtherUsersAndAdminCannotUpdateOtherAdmins(final Player player1,
-                                                                                  final Player player2) {
-        val playerId1 = createPlayerSafely(player1, adminLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(playerId1, true);
-
-        val playerId2 = createPlayerSafely(player2, adminLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(playerId2, true);
+    public void testThatUserCannotUpdateOtherUsersAndAdminCannotUpdateOtherAdmins(final String role) {
+        @Cleanup val player1 = fixturePool.lease(role);
+        @Cleanup val player2 = fixturePool.lease(role);
+        val playerId1 = player1.getId();
 
         val player1AfterCreation = httpClient.getPlayerByIdSuppressRequestException(playerId1);
         val player1ToUpdate = Player.builder()
-                .screenName(player1.getScreenName() + "_upd_1")
+                .screenName(player1AfterCreation.getScreenName() + "_upd_1")
                 .build();
 
         httpClient.updatePlayer(playerId1, player2.getLogin(), player1ToUpdate)
                 .then()
                 .statusCode(403);
-        assertEquals(httpClient.getPlayerByIdSuppressRequestException(playerId1), player1AfterCreation,
+        assertEquals(httpClient.getPlayerCheckedAgainstShadowModel(playerId1), player1AfterCreation,
                 "Player 1 should not have been updated");
+        player1.returnToPool();
+        player2.returnToPool();
     }
 
     @Description("Test that an admin cannot update the supervisor.")
     @Test(description = "Check that an admin cannot update the supervisor.")
+    @UsesResources(reads = SharedResource.SUPERVISOR)
     public void testThatAdminCannotUpdateSupervisor() {
         val supervisor = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
         val toUpdate = Player.builder()
@@ -226,62 +191,38 @@ public class UpdatePlayerControllerTests extends PlayerTestBase {
                 .then()
                 .statusCode(403);
 
-        val supervisorAfterUpdate = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
+        val supervisorAfterUpdate = httpClient.getPlayerCheckedAgainstShadowModel(supervisorId);
         assertEquals(supervisorAfterUpdate, supervisor, "Supervisor should not have been updated");
     }
 
     @Severity(SeverityLevel.CRITICAL)
     @Description("Test that a user cannot update admins.")
-    @Test(dataProvider = "userAndAdmin", dataProviderClass = TestDataProviders.class,
-    description = "Check that a user cannot update admins.")
-    public void testThatUserCannotUpdateAdmin(final Player user,
-                                              final Player admin) {
-        val userId = createPlayerSafely(user, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(userId, true);
-
-        val adminId = createPlayerSafely(admin, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(adminId, true);
+    @Test(description = "Check that a user cannot update admins.")
+    public void testThatUserCannotUpdateAdmin() {
+        @Cleanup val user = fixturePool.lease("user");
+        @Cleanup val admin = fixturePool.lease("admin");
+        val adminId = admin.getId();
 
         val adminAfterCreation = httpClient.getPlayerByIdSuppressRequestException(adminId);
         val toUpdate = Player.builder()
-                .screenName(admin.getScreenName().toUpperCase() + "_UPD")
+                .screenName(adminAfterCreation.getScreenName().toUpperCase() + "_UPD")
                 .build();
 
         httpClient.updatePlayer(adminId, user.getLogin(), toUpdate)
                 .then()
                 .statusCode(403);
 
-        val adminAfterUpdate = httpClient.getPlayerByIdSuppressRequestException(adminId);
+        val adminAfterUpdate = httpClient.getPlayerCheckedAgainstShadowModel(adminId);
         assertEquals(adminAfterUpdate, adminAfterCreation, "Admin should not have been updated");
+        user.returnToPool();
+        admin.returnToPool();
     }
 
     @Description("Test that a user cannot update the supervisor.")
-    @Test(dataProvider = "oneUser", dataProviderClass = TestDataProviders.class,
-    description = "Check that a user cannot update the supervisor.")
-    public void testThatUserCannotUpdateSupervisor(final Player user) {
-        val userId = createPlayerSafely(user, supervisorLogin)
-                .then()
-                .statusCode(in(List.of(200, 201)))
-                .contentType(ContentType.JSON)
-                .body("id", notNullValue())
-                .extract()
-                .as(Player.class)
-                .getId();
-        checkIfPlayerIsAvailableInAllPlayersList(userId, true);
+    @Test(description = "Check that a user cannot update the supervisor.")
+    @UsesResources(reads = SharedResource.SUPERVISOR)
+    public void testThatUserCannotUpdateSupervisor() {
+        @Cleanup val user = fixturePool.lease("user");
 
         val supervisor = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
         val toUpdate = Player.builder()
@@ -293,7 +234,8 @@ public class UpdatePlayerControllerTests extends PlayerTestBase {
         httpClient.updatePlayer(supervisorId, user.getLogin(), toUpdate)
                 .then()
                 .statusCode(403);
-        val supervisorAfterUpdate = httpClient.getPlayerByIdSuppressRequestException(supervisorId);
+        val supervisorAfterUpdate = httpClient.getPlayerCheckedAgainstShadowModel(supervisorId);
         assertEquals(supervisorAfterUpdate, supervisor, "Supervisor should not have been updated");
+        user.returnToPool();
     }
 }
@@ -0,0 +1,23 @@
+package org.soloviova.liudmyla.waiters;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of convergence times observed by {@link VisibilityWaiter} for one endpoint
+ *
+ * @author Liudmyla Soloviova
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ConvergenceStatistics {
+    private final String endpoint;
+    private final long waits;
+    private final long immediateConvergences;
+    private final long timeouts;
+    private final long totalConvergenceMillis;
+    private final long maxConvergenceMillis;
+    private final long smoothedConvergenceMillis;
+}
@@ -0,0 +1,153 @@
+package org.soloviova.liudmyla.waiters;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * This class waits until a change made by a request becomes visible through an endpoint of the app,
+ * e.g. until a created player appears in all players list. The check is repeated with exponential backoff
+ * and full jitter until it passes or the deadline is reached, so a slow backend doesn't fail a test
+ * and a fast one doesn't slow it down.
+ * <p>
+ * The backoff is adaptive: the first delay of an endpoint equals its smoothed convergence time observed so far.
+ * Convergence times are recorded for every endpoint and can be obtained via {@link #getConvergenceStatistics()}.
+ * <p>
+ * The deadline and delay bounds are set by the following properties: players.visibility.timeout.millis,
+ * players.visibility.min.delay.millis, players.visibility.max.delay.millis.
+ *
+ * @author Liudmyla Soloviova
+ */
+@Slf4j
+public class VisibilityWaiter {
+    private static final long TIMEOUT_MILLIS = Long.getLong("players.visibility.timeout.millis", 10_000L);
+    private static final long MIN_DELAY_MILLIS = Long.getLong("players.visibility.min.delay.millis", 25L);
+    private static final long MAX_DELAY_MILLIS = Long.getLong("players.visibility.max.delay.millis", 1_000L);
+
+    private final Map<String, EndpointConvergence> convergenceByEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Checks the condition until it passes or the deadline is reached
+     *
+     * @param endpoint  endpoint which is polled by the condition, convergence time is recorded for it
+     * @param condition check of the expected state, it is executed at least once
+     * @return {@code true} if the condition passed before the deadline
+     */
+    public boolean await(final String endpoint, final BooleanSupplier condition) {
+        final EndpointConvergence convergence =
+                convergenceByEndpoint.computeIfAbsent(endpoint, EndpointConvergence::new);
+        final long start = System.nanoTime();
+        if (condition.getAsBoolean()) {
+            convergence.recordImmediate();
+            return true;
+        }
+
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        long delayCeilingMillis = convergence.firstDelayMillis();
+        while (true) {
+            final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                convergence.recordTimeout();
+                log.warn("Expected state of {} was not reached in {} ms", endpoint, TIMEOUT_MILLIS);
+                return false;
+            }
+            if (!sleep(Math.min(remainingMillis, jitter(delayCeilingMillis)))) {
+                return false;
+            }
+            if (condition.getAsBoolean()) {
+                final long convergenceMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                convergence.recordConvergence(convergenceMillis);
+                log.info("Expected state of {} was reached in {} ms", endpoint, convergenceMillis);
+                return true;
+            }
+            delayCeilingMillis = Math.min(MAX_DELAY_MILLIS, delayCeilingMillis * 2);
+        }
+    }
+
+    public List<ConvergenceStatistics> getConvergenceStatistics() {
+        return convergenceByEndpoint.values()
+                .stream()
+                .map(EndpointConvergence::toStatistics)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Full jitter: a random delay between the minimal one and the current ceiling, so parallel tests
+     * waiting for the same endpoint don't poll it in lockstep
+     */
+    private static long jitter(final long delayCeilingMillis) {
+        final long ceilingMillis = Math.max(MIN_DELAY_MILLIS, delayCeilingMillis);
+        return ThreadLocalRandom.current().nextLong(MIN_DELAY_MILLIS, ceilingMillis + 1);
+    }
+
+    private static boolean sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class EndpointConvergence {
+        private final String endpoint;
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder immediateConvergences = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalConvergenceMillis = new LongAdder();
+        private final LongAccumulator maxConvergenceMillis = new LongAccumulator(Long::max, 0L);
+        private final AtomicLong smoothedConvergenceMillis = new AtomicLong();
+
+        EndpointConvergence(final String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        long firstDelayMillis() {
+            return Math.max(MIN_DELAY_MILLIS, Math.min(MAX_DELAY_MILLIS, smoothedConvergenceMillis.get()));
+        }
+
+        void recordImmediate() {
+            waits.increment();
+            immediateConvergences.increment();
+            smooth(0L);
+        }
+
+        void recordConvergence(final long convergenceMillis) {
+            waits.increment();
+            totalConvergenceMillis.add(convergenceMillis);
+            maxConvergenceMillis.accumulate(convergenceMillis);
+            smooth(convergenceMillis);
+        }
+
+        void recordTimeout() {
+            waits.increment();
+            timeouts.increment();
+            totalConvergenceMillis.add(TIMEOUT_MILLIS);
+            maxConvergenceMillis.accumulate(TIMEOUT_MILLIS);
+            smooth(TIMEOUT_MILLIS);
+        }
+
+        /**
+         * Exponentially weighted moving average with weight 1/8 of the last observation
+         */
+        private void smooth(final long observedMillis) {
+            smoothedConvergenceMillis.accumulateAndGet(observedMillis,
+                    (smoothed, observed) -> (smoothed * 7 + observed) / 8);
+        }
+
+        ConvergenceStatistics toStatistics() {
+            return new ConvergenceStatistics(endpoint, waits.sum(), immediateConvergences.sum(), timeouts.sum(),
+                    totalConvergenceMillis.sum(), maxConvergenceMillis.get(), smoothedConvergenceMillis.get());
+        }
+    }
+}